@@ -1,25 +1,22 @@
 package com.minelittlepony.unicopia;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 import java.util.function.Consumer;
+
+import com.minelittlepony.unicopia.server.world.TickScheduler;
+
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.World;
 
 public interface AwaitTickQueue {
-    static void scheduleTask(World reference, Consumer<World> task, int ticksLater) {
+    static Optional<TickScheduler.Task> scheduleTask(World reference, Consumer<World> task, int ticksLater) {
         if (reference instanceof ServerWorld serverWorld) {
-            CompletableFuture.runAsync(() -> {
-                task.accept(serverWorld);
-            }, CompletableFuture.delayedExecutor(ticksLater * 100, TimeUnit.MILLISECONDS, serverWorld.getServer()));
+            return Optional.of(TickScheduler.of(serverWorld).schedule(task::accept, ticksLater));
         }
+        return Optional.empty();
     }
 
-    static void scheduleTask(World reference, Consumer<World> task) {
-        if (reference instanceof ServerWorld serverWorld) {
-            CompletableFuture.runAsync(() -> {
-                task.accept(serverWorld);
-            }, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS, serverWorld.getServer()));
-        }
+    static Optional<TickScheduler.Task> scheduleTask(World reference, Consumer<World> task) {
+        return scheduleTask(reference, task, 0);
     }
 }
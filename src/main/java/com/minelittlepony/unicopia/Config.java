@@ -24,6 +24,10 @@ public class Config extends com.minelittlepony.common.util.settings.Config {
     public final Setting<Boolean> enableCheats = value("server", "enableCheats", false)
             .addComment("Allows use of the /tribe, /unicopia disguise, and /unicopia gravity commands");
 
+    public final Setting<Integer> zapAppleTransitionTicks = value("server", "zapAppleTransitionTicks", 12000)
+            .addComment("The most night-time ticks zap apple trees may take to change to their next stage")
+            .addComment("Each block still changes at a random point within that time, so larger values spread the work out further.");
+
     public final Setting<Race> preferredRace = value("client", "preferredRace", Race.EARTH)
             .addComment("The default preferred race")
             .addComment("This is the race a client requests when first joining a game")
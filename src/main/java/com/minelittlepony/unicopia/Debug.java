@@ -6,8 +6,11 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.Sets;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
+import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraitsBenchmark;
 import com.minelittlepony.unicopia.entity.mob.AirBalloonEntity;
 import com.minelittlepony.unicopia.entity.mob.UEntities;
+import com.minelittlepony.unicopia.server.world.PersistenceBenchmark;
+import com.minelittlepony.unicopia.server.world.WorldAccessBenchmark;
 
 import net.minecraft.entity.vehicle.BoatEntity;
 import net.minecraft.registry.Registries;
@@ -20,11 +23,33 @@ public interface Debug {
     boolean SPELLBOOK_CHAPTERS = Boolean.getBoolean("unicopia.debug.spellbookChapters");
     boolean CHECK_GAME_VALUES = Boolean.getBoolean("unicopia.debug.checkGameValues");
     boolean CHECK_TRAIT_COVERAGE = Boolean.getBoolean("unicopia.debug.checkTraitCoverage");
+    boolean BENCHMARK_PERSISTENCE = Boolean.getBoolean("unicopia.debug.benchmarkPersistence");
+    boolean BENCHMARK_WORLD_ACCESS = Boolean.getBoolean("unicopia.debug.benchmarkWorldAccess");
+    boolean BENCHMARK_TRAITS = Boolean.getBoolean("unicopia.debug.benchmarkTraits");
+    boolean BENCHMARK_MODELS = Boolean.getBoolean("unicopia.debug.benchmarkModels");
+
+    boolean RUN_TESTS = CHECK_GAME_VALUES || BENCHMARK_PERSISTENCE || BENCHMARK_WORLD_ACCESS || BENCHMARK_TRAITS;
 
     AtomicReference<World> LAST_TESTED_WORLD = new AtomicReference<>(null);
 
     static void runTests(World world) {
-        if (!CHECK_GAME_VALUES || !world.getDimensionKey().getValue().equals(DimensionTypes.OVERWORLD_ID) || (LAST_TESTED_WORLD.getAndSet(world) == world)) {
+        if (!RUN_TESTS || !world.getDimensionKey().getValue().equals(DimensionTypes.OVERWORLD_ID) || (LAST_TESTED_WORLD.getAndSet(world) == world)) {
+            return;
+        }
+
+        if (BENCHMARK_PERSISTENCE) {
+            PersistenceBenchmark.run(world);
+        }
+
+        if (BENCHMARK_WORLD_ACCESS) {
+            WorldAccessBenchmark.run(world);
+        }
+
+        if (BENCHMARK_TRAITS) {
+            SpellTraitsBenchmark.run();
+        }
+
+        if (!CHECK_GAME_VALUES) {
             return;
         }
 
@@ -31,6 +31,8 @@ public record Race (Supplier<Composite> compositeSupplier, Availability availabi
     public static final RegistryKey<? extends Registry<Race>> REGISTRY_KEY = REGISTRY.getKey();
     private static final DynamicCommandExceptionType UNKNOWN_RACE_EXCEPTION = new DynamicCommandExceptionType(id -> Text.translatable("race.unknown", id));
 
+    private static volatile int whitelistRevision;
+
     public static Race register(String name, Availability availability, boolean magic, FlightType flight, boolean earth, boolean nocturnal, boolean canHang) {
         return register(Unicopia.id(name), availability, magic, flight, earth, nocturnal, canHang);
     }
@@ -132,6 +134,17 @@ public record Race (Supplier<Composite> compositeSupplier, Availability availabi
         return new Identifier(id.getNamespace(), "textures/gui/race/" + id.getPath() + ".png");
     }
 
+    /**
+     * Called when the race whitelist changes so that players can be checked against it again.
+     */
+    public static void onWhitelistChanged() {
+        whitelistRevision++;
+    }
+
+    public static int getWhitelistRevision() {
+        return whitelistRevision;
+    }
+
     public boolean isPermitted(@Nullable PlayerEntity sender) {
         Set<String> whitelist = Unicopia.getConfig().speciesWhiteList.get();
 
@@ -1,6 +1,7 @@
 package com.minelittlepony.unicopia;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
 import net.minecraft.resource.ResourceType;
@@ -23,6 +24,7 @@ import com.minelittlepony.unicopia.compat.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.container.SpellbookChapterLoader;
 import com.minelittlepony.unicopia.container.UScreenHandlers;
 import com.minelittlepony.unicopia.diet.DietsLoader;
+import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.minelittlepony.unicopia.diet.affliction.AfflictionType;
 import com.minelittlepony.unicopia.entity.damage.UDamageTypes;
 import com.minelittlepony.unicopia.entity.effect.UPotions;
@@ -33,7 +35,10 @@ import com.minelittlepony.unicopia.item.enchantment.UEnchantments;
 import com.minelittlepony.unicopia.network.Channel;
 import com.minelittlepony.unicopia.particle.UParticles;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
+import com.minelittlepony.unicopia.server.world.FlowerIndex;
 import com.minelittlepony.unicopia.server.world.NocturnalSleepManager;
+import com.minelittlepony.unicopia.server.world.TickScheduler;
 import com.minelittlepony.unicopia.server.world.UGameRules;
 import com.minelittlepony.unicopia.server.world.UWorldGen;
 import com.minelittlepony.unicopia.server.world.WeatherConditions;
@@ -73,18 +78,27 @@ public class Unicopia implements ModInitializer {
 
         ServerTickEvents.END_WORLD_TICK.register(w -> {
             ((BlockDestructionManager.Source)w).getDestructionManager().tick();
+            TickScheduler.of(w).tick();
             ZapAppleStageStore.get(w).tick();
             WeatherConditions.get(w).tick();
+            BlockEditQueue.of(w).tick();
             if (Debug.SPELLBOOK_CHAPTERS) {
                 SpellbookChapterLoader.INSTANCE.sendUpdate(w.getServer());
             }
-            if (Debug.CHECK_GAME_VALUES) {
+            if (Debug.RUN_TESTS) {
                 Debug.runTests(w);
             }
         });
         NocturnalSleepManager.bootstrap();
+        ZapAppleStageStore.bootstrap();
+        FlowerIndex.bootstrap();
 
         registerServerDataReloaders(ResourceManagerHelper.get(ResourceType.SERVER_DATA));
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            StateMapLoader.INSTANCE.invalidate();
+            PonyDiets.invalidate();
+            FlowerIndex.invalidateAll();
+        });
 
         UGameEvents.bootstrap();
         UBlocks.bootstrap();
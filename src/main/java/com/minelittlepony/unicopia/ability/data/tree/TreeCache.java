@@ -0,0 +1,84 @@
+package com.minelittlepony.unicopia.ability.data.tree;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+import com.minelittlepony.unicopia.ability.data.tree.TreeType.Tree;
+
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Remembers the logs and leaves found for recently traversed trees, keyed by the type of tree and the position of its base.
+ * <p>
+ * A tree is forgotten as soon as a block inside of, or directly next to, its bounds changes.
+ */
+public class TreeCache {
+    private static final int MAX_CACHED_TREES = 64;
+
+    private final Map<Key, Entry> trees = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_CACHED_TREES;
+        }
+    };
+
+    public static Supplier<TreeCache> create(World world) {
+        return Suppliers.memoize(TreeCache::new);
+    }
+
+    public static TreeCache of(World world) {
+        return ((TreeCache.Source)world).getTreeCache();
+    }
+
+    public Tree get(TreeType type, BlockPos base, Supplier<Tree> traverser) {
+        Key key = new Key(type, base.asLong());
+        Entry entry = trees.get(key);
+        if (entry == null) {
+            Tree tree = traverser.get();
+            entry = new Entry(tree, getBounds(base, tree));
+            trees.put(key, entry);
+        }
+        return entry.tree();
+    }
+
+    public void invalidate(BlockPos pos) {
+        if (trees.isEmpty()) {
+            return;
+        }
+        Iterator<Entry> iter = trees.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().bounds().contains(pos)) {
+                iter.remove();
+            }
+        }
+    }
+
+    private static BlockBox getBounds(BlockPos base, Tree tree) {
+        int[] bounds = { base.getX(), base.getY(), base.getZ(), base.getX(), base.getY(), base.getZ() };
+        Consumer<BlockPos> encompass = pos -> {
+            bounds[0] = Math.min(bounds[0], pos.getX());
+            bounds[1] = Math.min(bounds[1], pos.getY());
+            bounds[2] = Math.min(bounds[2], pos.getZ());
+            bounds[3] = Math.max(bounds[3], pos.getX());
+            bounds[4] = Math.max(bounds[4], pos.getY());
+            bounds[5] = Math.max(bounds[5], pos.getZ());
+        };
+        tree.logs().forEach(new BlockPos.Mutable(), encompass);
+        tree.leaves().forEach(new BlockPos.Mutable(), encompass);
+        return new BlockBox(bounds[0] - 1, bounds[1] - 1, bounds[2] - 1, bounds[3] + 1, bounds[4] + 1, bounds[5] + 1);
+    }
+
+    private record Key(TreeType type, long base) {}
+
+    private record Entry(Tree tree, BlockBox bounds) {}
+
+    public interface Source {
+        TreeCache getTreeCache();
+    }
+}
@@ -2,8 +2,12 @@ package com.minelittlepony.unicopia.ability.data.tree;
 
 import java.util.Optional;
 
+import com.minelittlepony.unicopia.util.ChunkSectionReader;
 import com.minelittlepony.unicopia.util.PosHelper;
 
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -14,65 +18,89 @@ public class TreeTraverser {
             Direction.UP, Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST
     };
 
+    /**
+     * The furthest (in steps) a block can be from where the traversal started.
+     */
+    private static final int MAX_DISTANCE = 50;
+    /**
+     * The most logs and leaves a single traversal may collect.
+     */
+    private static final int MAX_BLOCKS = 16384;
+
     private final TreeType type;
 
     private PosHelper.PositionRecord logs = new PosHelper.PositionRecord();
     private PosHelper.PositionRecord leaves = new PosHelper.PositionRecord();
 
-    private final int maxRecurse = 50;
-
     public TreeTraverser(TreeType type) {
         this.type = type;
     }
 
     public PosHelper.PositionRecord collectLogs(World w, BlockPos pos) {
-        traverse(w, pos.mutableCopy());
+        traverse(w, pos);
         return logs;
     }
 
     public PosHelper.PositionRecord collectLeaves(World w, BlockPos pos) {
-        traverse(w, findCanopy(w, pos));
+        ChunkSectionReader reader = new ChunkSectionReader(w);
+        traverse(reader, findCanopy(reader, pos));
         return leaves;
     }
 
     public void traverse(World w, BlockPos pos) {
-        traverse(w, pos.mutableCopy());
+        traverse(new ChunkSectionReader(w), pos);
     }
 
-    private void traverse(World w, BlockPos.Mutable pos) {
+    /**
+     * Visits every log and leaf connected to the starting position, nearest first.
+     */
+    private void traverse(ChunkSectionReader reader, BlockPos start) {
         logs = new PosHelper.PositionRecord();
         leaves = new PosHelper.PositionRecord();
-        innerTraverse(w, pos, 0);
-    }
 
-    private void innerTraverse(World w, BlockPos.Mutable pos, int recurseLevel) {
-        if (recurseLevel >= maxRecurse || logs.hasVisited(pos) || leaves.hasVisited(pos)) {
-            return;
-        }
+        LongOpenHashSet rejected = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        IntArrayFIFOQueue distances = new IntArrayFIFOQueue();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
 
-        BlockState state = w.getBlockState(pos);
-        boolean yay = false;
+        queue.enqueue(start.asLong());
+        distances.enqueue(0);
 
-        if (type.isLeaves(state)) {
-            leaves.visit(pos);
-            yay = true;
-        } else if (type.isLog(state)) {
-            logs.visit(pos);
-            yay = true;
-        }
+        while (!queue.isEmpty() && logs.size() + leaves.size() < MAX_BLOCKS) {
+            long packed = queue.dequeueLong();
+            int distance = distances.dequeueInt();
+            pos.set(packed);
+
+            if (rejected.contains(packed) || logs.hasVisited(pos) || leaves.hasVisited(pos)) {
+                continue;
+            }
+
+            BlockState state = reader.getBlockState(pos);
+            if (type.isLeaves(state)) {
+                leaves.visit(pos);
+            } else if (type.isLog(state)) {
+                logs.visit(pos);
+            } else {
+                rejected.add(packed);
+                continue;
+            }
 
-        if (yay) {
-            PosHelper.fastAll(pos, p -> innerTraverse(w, p, recurseLevel + 1), WIDE_DIRS);
+            if (distance + 1 < MAX_DISTANCE) {
+                for (Direction direction : WIDE_DIRS) {
+                    queue.enqueue(BlockPos.offset(packed, direction));
+                    distances.enqueue(distance + 1);
+                }
+            }
         }
     }
 
     /**
      * Locates the top of the tree's trunk. Usually the point where wood meets leaves.
      */
-    private BlockPos.Mutable findCanopy(World w, BlockPos pos) {
+    private BlockPos.Mutable findCanopy(ChunkSectionReader reader, BlockPos pos) {
         BlockPos.Mutable mutable = pos.mutableCopy();
-        while (type.isLog(w.getBlockState(mutable.move(Direction.UP)))) {
-            if (PosHelper.fastAny(mutable, p -> type.isLeaves(w.getBlockState(p)), PosHelper.HORIZONTAL)) {
+        while (type.isLog(reader.getBlockState(mutable.move(Direction.UP)))) {
+            if (PosHelper.fastAny(mutable, p -> type.isLeaves(reader.getBlockState(p)), PosHelper.HORIZONTAL)) {
                 break;
             }
         }
@@ -81,21 +109,21 @@ public class TreeTraverser {
 
     public Optional<BlockPos> findBase(World w, BlockPos pos) {
         logs.clear();
-        return findBase(w, pos.mutableCopy());
+        return findBase(new ChunkSectionReader(w), pos.mutableCopy());
     }
 
-    private Optional<BlockPos> findBase(World w, BlockPos.Mutable pos) {
-        if (logs.hasVisited(pos) || !type.isLog(w.getBlockState(pos))) {
+    private Optional<BlockPos> findBase(ChunkSectionReader reader, BlockPos.Mutable pos) {
+        if (logs.hasVisited(pos) || !type.isLog(reader.getBlockState(pos))) {
             return Optional.empty();
         }
 
         do {
             logs.visit(pos);
-        } while (type.isLog(w.getBlockState(pos.move(Direction.DOWN))));
+        } while (type.isLog(reader.getBlockState(pos.move(Direction.DOWN))));
         pos.move(Direction.UP);
 
         if (type.isWide()) {
-            PosHelper.fastAll(pos, p -> findBase(w, p)
+            PosHelper.fastAll(pos, p -> findBase(reader, p)
                     .filter(a -> a.getY() < pos.getY())
                     .ifPresent(pos::set), PosHelper.HORIZONTAL);
         }
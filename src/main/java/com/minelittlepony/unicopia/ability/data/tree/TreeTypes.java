@@ -1,10 +1,15 @@
 package com.minelittlepony.unicopia.ability.data.tree;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.util.PosHelper;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.LeavesBlock;
@@ -18,27 +23,35 @@ import net.minecraft.world.World;
 
 public class TreeTypes {
     private static Set<TreeType> entries = new HashSet<>();
+    @Nullable
+    private static volatile Table table;
 
     private static final TreeType any1x = createDynamic(false);
     private static final TreeType any2x = createDynamic(true);
 
     public static void load(Map<Identifier, TreeTypeLoader.TreeTypeDef> types) {
         entries = types.entrySet().stream().map(e -> e.getValue().toTreeType(e.getKey())).collect(Collectors.toSet());
+        table = null;
     }
 
     static TreeType get(BlockState state, BlockPos pos, World world) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .map(type -> TreeType.of(type, findLeavesType(type, world, pos)))
-                .orElseGet(() -> any1x.matches(state) ? (PosHelper.fastAny(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL) ? any2x : any1x) : TreeType.NONE);
+        TreeType type = get(state);
+        if (type != TreeType.NONE) {
+            return TreeType.of(type, findLeavesType(type, world, pos));
+        }
+        return any1x.matches(state) ? (PosHelper.fastAny(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL) ? any2x : any1x) : TreeType.NONE;
     }
 
     static TreeType get(BlockState state) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .orElse(TreeType.NONE);
+        return getTable().types()[Block.getRawIdFromState(state)];
+    }
+
+    private static Table getTable() {
+        Table table = TreeTypes.table;
+        if (table == null) {
+            TreeTypes.table = table = Table.compile(entries);
+        }
+        return table;
     }
 
     private static TreeType findLeavesType(TreeType baseType, World w, BlockPos pos) {
@@ -55,12 +68,12 @@ public class TreeTypes {
         return new TreeType() {
             @Override
             public boolean isLeaves(BlockState state) {
-                return (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock || entries.stream().anyMatch(t -> t.isLeaves(state))) && TreeTypeImpl.isNonPersistent(state);
+                return (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock || getTable().leaves().get(Block.getRawIdFromState(state))) && TreeTypeImpl.isNonPersistent(state);
             }
 
             @Override
             public boolean isLog(BlockState state) {
-                return state.isIn(BlockTags.LOGS_THAT_BURN) || entries.stream().anyMatch(t -> t.isLog(state));
+                return state.isIn(BlockTags.LOGS_THAT_BURN) || getTable().logs().get(Block.getRawIdFromState(state));
             }
 
             @Override
@@ -83,4 +96,29 @@ public class TreeTypes {
             }
         };
     }
+
+    /**
+     * The tree types loaded from data, looked up by the raw id of each block state they match.
+     */
+    private record Table(TreeType[] types, BitSet logs, BitSet leaves) {
+        static Table compile(Set<TreeType> entries) {
+            TreeType[] types = new TreeType[Block.STATE_IDS.size()];
+            BitSet logs = new BitSet(types.length);
+            BitSet leaves = new BitSet(types.length);
+            for (BlockState state : Block.STATE_IDS) {
+                int id = Block.getRawIdFromState(state);
+                types[id] = TreeType.NONE;
+                for (TreeType type : entries) {
+                    boolean isLog = type.isLog(state);
+                    boolean isLeaves = type.isLeaves(state);
+                    logs.set(id, logs.get(id) || isLog);
+                    leaves.set(id, leaves.get(id) || isLeaves);
+                    if (types[id] == TreeType.NONE && (isLog || isLeaves)) {
+                        types[id] = type;
+                    }
+                }
+            }
+            return new Table(types, logs, leaves);
+        }
+    }
 }
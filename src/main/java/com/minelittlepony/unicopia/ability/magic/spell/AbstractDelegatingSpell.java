@@ -93,6 +93,12 @@ public abstract class AbstractDelegatingSpell implements Spell,
         dirty = true;
     }
 
+    @Override
+    public void clearDirty() {
+        dirty = false;
+        getDelegates().forEach(Spell::clearDirty);
+    }
+
     @Override
     public boolean isHidden() {
         return hidden || getDelegates().stream().allMatch(Spell::isHidden);
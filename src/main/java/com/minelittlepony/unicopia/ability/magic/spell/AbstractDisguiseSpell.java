@@ -7,6 +7,7 @@ import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.*;
 import com.minelittlepony.unicopia.entity.behaviour.Disguise;
 import com.minelittlepony.unicopia.entity.behaviour.EntityAppearance;
+import com.minelittlepony.unicopia.entity.collision.EntityCollisionIndex;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.projectile.ProjectileImpactListener;
 
@@ -34,6 +35,7 @@ public abstract class AbstractDisguiseSpell extends AbstractSpell implements Dis
             ((Pony) caster).setInvisible(false);
         }
         disguise.remove();
+        EntityCollisionIndex.of(caster.asWorld()).remove(caster.asEntity());
     }
 
     @Override
@@ -48,7 +50,15 @@ public abstract class AbstractDisguiseSpell extends AbstractSpell implements Dis
 
     @Override
     public boolean tick(Caster<?> source, Situation situation) {
-        return situation == Situation.BODY && update(source, true);
+        if (situation != Situation.BODY) {
+            return false;
+        }
+        if (!update(source, true)) {
+            EntityCollisionIndex.of(source.asWorld()).remove(source.asEntity());
+            return false;
+        }
+        EntityCollisionIndex.of(source.asWorld()).update(source.asEntity(), disguise);
+        return true;
     }
 
     @Override
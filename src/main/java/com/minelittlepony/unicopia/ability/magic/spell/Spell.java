@@ -103,6 +103,11 @@ public interface Spell extends NbtSerialisable, Affine {
      */
     void setDirty();
 
+    /**
+     * Clears the dirty flag once this effect's changes have been sent to the client.
+     */
+    void clearDirty();
+
     boolean isHidden();
 
     void setHidden(boolean hidden);
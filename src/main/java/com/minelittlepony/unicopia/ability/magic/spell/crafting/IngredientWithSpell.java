@@ -2,9 +2,11 @@ package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Suppliers;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
@@ -12,6 +14,7 @@ import com.minelittlepony.unicopia.item.EnchantableItem;
 import com.minelittlepony.unicopia.util.CodecUtils;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.recipe.Ingredient;
@@ -59,6 +62,15 @@ public class IngredientWithSpell implements Predicate<ItemStack> {
         return stacks.get();
     }
 
+    /**
+     * Gets the items a stack may be to match this ingredient, or empty if this ingredient isn't limited to specific items.
+     */
+    public Optional<Set<Item>> getMatchingItems() {
+        return stack.map(ingredient -> Arrays.stream(ingredient.getMatchingStacks())
+                .map(ItemStack::getItem)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
     public boolean isEmpty() {
         return stack.filter(INGREDIENT_IS_PRESENT).isEmpty() && spell.isEmpty();
     }
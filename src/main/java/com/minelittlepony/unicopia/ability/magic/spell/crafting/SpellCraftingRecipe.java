@@ -55,6 +55,11 @@ public class SpellCraftingRecipe implements SpellbookRecipe {
         this.output = output;
     }
 
+    @Override
+    public IngredientWithSpell getBaseMaterial() {
+        return material;
+    }
+
     @Override
     public void buildCraftingTree(CraftingTreeBuilder builder) {
         builder.input(material.getMatchingStacks());
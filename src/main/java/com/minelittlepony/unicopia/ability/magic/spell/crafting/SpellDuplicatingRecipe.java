@@ -23,6 +23,11 @@ public class SpellDuplicatingRecipe implements SpellbookRecipe {
         this.material = material;
     }
 
+    @Override
+    public IngredientWithSpell getBaseMaterial() {
+        return material;
+    }
+
     @Override
     public void buildCraftingTree(CraftingTreeBuilder builder) {
         ItemStack[] spells = SpellType.REGISTRY.stream()
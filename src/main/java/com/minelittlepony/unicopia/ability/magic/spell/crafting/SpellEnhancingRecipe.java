@@ -22,6 +22,7 @@ public class SpellEnhancingRecipe implements SpellbookRecipe {
         this.material = material;
     }
 
+    @Override
     public IngredientWithSpell getBaseMaterial() {
         return material;
     }
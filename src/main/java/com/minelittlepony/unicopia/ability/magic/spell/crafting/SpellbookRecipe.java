@@ -29,6 +29,11 @@ public interface SpellbookRecipe extends Recipe<SpellbookInventory> {
 
     void buildCraftingTree(CraftingTreeBuilder builder);
 
+    /**
+     * The ingredient that has to be in the gem slot for this recipe to match.
+     */
+    IngredientWithSpell getBaseMaterial();
+
     int getPriority();
 
     interface CraftingTreeBuilder {
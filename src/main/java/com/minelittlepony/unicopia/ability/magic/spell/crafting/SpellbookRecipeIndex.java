@@ -0,0 +1,283 @@
+package com.minelittlepony.unicopia.ability.magic.spell.crafting;
+
+import java.util.*;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
+import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
+import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
+import com.minelittlepony.unicopia.item.URecipes;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.world.World;
+
+/**
+ * Looks up the spellbook recipe matching the contents of a spellbook.
+ * <p>
+ * Recipes are grouped by the items they accept in the gem slot, so only the recipes that could take
+ * the current gem are ever tested. Spell crafting recipes are checked first against the items present
+ * in the inventory and then against trait totals summed into flat arrays, rather than going through their
+ * general matches() implementation.
+ * <p>
+ * The index is rebuilt whenever the recipe manager is replaced by a data reload. Results are remembered
+ * for recently seen inventory contents.
+ */
+public final class SpellbookRecipeIndex {
+    private static final int MAX_MEMOISED_RESULTS = 256;
+    private static final Trait[] TRAITS = Trait.values();
+
+    @Nullable
+    private static volatile SpellbookRecipeIndex current;
+
+    private final RecipeManager manager;
+
+    private final Map<Item, List<Candidate>> byMaterial = new Reference2ObjectOpenHashMap<>();
+    private final List<Candidate> anyMaterial = new ArrayList<>();
+
+    private final Map<Contents, Optional<RecipeEntry<SpellbookRecipe>>> results = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Contents, Optional<RecipeEntry<SpellbookRecipe>>> eldest) {
+            return size() > MAX_MEMOISED_RESULTS;
+        }
+    };
+
+    /**
+     * Finds the highest priority recipe matching the inventory's contents.
+     */
+    public static Optional<RecipeEntry<SpellbookRecipe>> getFirstMatch(SpellbookInventory inventory, World world) {
+        RecipeManager manager = world.getRecipeManager();
+        SpellbookRecipeIndex index = current;
+        if (index == null || index.manager != manager) {
+            current = index = new SpellbookRecipeIndex(manager);
+        }
+        return index.find(inventory, world);
+    }
+
+    private SpellbookRecipeIndex(RecipeManager manager) {
+        this.manager = manager;
+
+        List<RecipeEntry<SpellbookRecipe>> recipes = new ArrayList<>(manager.listAllOfType(URecipes.SPELLBOOK));
+        recipes.sort(Comparator.comparingInt(e -> e.value().getPriority()));
+
+        for (int i = 0; i < recipes.size(); i++) {
+            Candidate candidate = Candidate.of(i, recipes.get(i));
+            candidate.entry().value().getBaseMaterial().getMatchingItems().ifPresentOrElse(items -> {
+                items.forEach(item -> byMaterial.computeIfAbsent(item, k -> new ArrayList<>()).add(candidate));
+            }, () -> anyMaterial.add(candidate));
+        }
+        byMaterial.values().forEach(bucket -> {
+            bucket.addAll(anyMaterial);
+            bucket.sort(Comparator.comparingInt(Candidate::order));
+        });
+    }
+
+    private Optional<RecipeEntry<SpellbookRecipe>> find(SpellbookInventory inventory, World world) {
+        Contents contents = Contents.of(inventory);
+        synchronized (results) {
+            Optional<RecipeEntry<SpellbookRecipe>> result = results.get(contents);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        Optional<RecipeEntry<SpellbookRecipe>> result = Optional.empty();
+        Query query = new Query(inventory);
+        for (Candidate candidate : byMaterial.getOrDefault(inventory.getItemToModify().getItem(), anyMaterial)) {
+            if (candidate.matches(query, world)) {
+                result = Optional.of(candidate.entry());
+                break;
+            }
+        }
+
+        synchronized (results) {
+            results.put(contents, result);
+        }
+        return result;
+    }
+
+    private record Candidate(
+            int order,
+            RecipeEntry<SpellbookRecipe> entry,
+            @Nullable SpellCraftingRecipe crafting,
+            @Nullable Set<Item>[] requirements,
+            float[] min,
+            float[] max) {
+
+        @SuppressWarnings("unchecked")
+        static Candidate of(int order, RecipeEntry<SpellbookRecipe> entry) {
+            if (!(entry.value() instanceof SpellCraftingRecipe crafting)) {
+                return new Candidate(order, entry, null, null, null, null);
+            }
+            Set<Item>[] requirements = new Set[crafting.requiredItems.size()];
+            for (int i = 0; i < requirements.length; i++) {
+                requirements[i] = crafting.requiredItems.get(i).getMatchingItems().orElse(null);
+            }
+            return new Candidate(order, entry, crafting, requirements,
+                    crafting.requiredTraits.min().map(Query::toVector).orElse(null),
+                    crafting.requiredTraits.max().map(Query::toVector).orElse(null)
+            );
+        }
+
+        boolean matches(Query query, World world) {
+            if (crafting == null) {
+                return entry.value().matches(query.inventory, world);
+            }
+
+            if (!crafting.material.test(query.inventory.getItemToModify())) {
+                return false;
+            }
+
+            if (requirements.length == 0) {
+                return testTraits(query.getWeightedTraits());
+            }
+
+            for (Set<Item> items : requirements) {
+                if (items != null && Collections.disjoint(items, query.presentItems)) {
+                    return false;
+                }
+            }
+
+            boolean[] used = new boolean[query.stacks.length];
+            for (IngredientWithSpell requirement : crafting.requiredItems) {
+                boolean found = false;
+                for (int slot = 0; slot < query.stacks.length; slot++) {
+                    if (!used[slot] && !query.stacks[slot].isEmpty() && requirement.test(query.stacks[slot])) {
+                        used[slot] = true;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+
+            float[] traits = new float[TRAITS.length];
+            for (int slot = 0; slot < query.stacks.length; slot++) {
+                if (!used[slot] && !query.stacks[slot].isEmpty()) {
+                    Query.add(traits, query.getTraits(slot), slot);
+                }
+            }
+            return testTraits(traits);
+        }
+
+        private boolean testTraits(float[] traits) {
+            for (int i = 0; i < traits.length; i++) {
+                if (min != null && min[i] != 0 && traits[i] < min[i]) {
+                    return false;
+                }
+                if (max != null && traits[i] != 0 && max[i] < traits[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Query {
+        private final SpellbookInventory inventory;
+        private final ItemStack[] stacks;
+        private final float[][] traits;
+        private final Set<Item> presentItems = new ReferenceOpenHashSet<>();
+        @Nullable
+        private float[] weightedTraits;
+
+        Query(SpellbookInventory inventory) {
+            this.inventory = inventory;
+            this.stacks = new ItemStack[inventory.size()];
+            this.traits = new float[stacks.length][];
+            for (int i = 0; i < stacks.length; i++) {
+                stacks[i] = inventory.getStack(i);
+                if (!stacks[i].isEmpty()) {
+                    presentItems.add(stacks[i].getItem());
+                }
+            }
+        }
+
+        float[] getTraits(int slot) {
+            if (traits[slot] == null) {
+                traits[slot] = toVector(SpellTraits.of(stacks[slot]));
+            }
+            return traits[slot];
+        }
+
+        float[] getWeightedTraits() {
+            if (weightedTraits == null) {
+                weightedTraits = new float[TRAITS.length];
+                for (int slot = 0; slot < stacks.length; slot++) {
+                    if (!stacks[slot].isEmpty()) {
+                        add(weightedTraits, getTraits(slot), inventory.getFactor(slot));
+                    }
+                }
+            }
+            return weightedTraits;
+        }
+
+        static void add(float[] to, float[] from, float factor) {
+            if (factor == 0) {
+                return;
+            }
+            for (int i = 0; i < to.length; i++) {
+                to[i] += from[i] * factor;
+            }
+        }
+
+        static float[] toVector(SpellTraits traits) {
+            float[] vector = new float[TRAITS.length];
+            for (var entry : traits) {
+                vector[entry.getKey().ordinal()] = entry.getValue();
+            }
+            return vector;
+        }
+    }
+
+    /**
+     * A snapshot of a spellbook's contents used as the key for memoised results.
+     */
+    private static final class Contents {
+        private final ItemStack[] stacks;
+        private final int hash;
+
+        private Contents(ItemStack[] stacks) {
+            this.stacks = stacks;
+            int hash = 0;
+            for (ItemStack stack : stacks) {
+                hash = 31 * hash + (stack.isEmpty() ? 0 : Objects.hash(stack.getItem(), stack.getCount(), stack.getNbt()));
+            }
+            this.hash = hash;
+        }
+
+        static Contents of(SpellbookInventory inventory) {
+            ItemStack[] stacks = new ItemStack[inventory.size() + 1];
+            for (int i = 0; i < inventory.size(); i++) {
+                stacks[i] = inventory.getStack(i).copy();
+            }
+            stacks[inventory.size()] = inventory.getItemToModify().copy();
+            return new Contents(stacks);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Contents o) || o.hash != hash || o.stacks.length != stacks.length) {
+                return false;
+            }
+            for (int i = 0; i < stacks.length; i++) {
+                if (!ItemStack.areEqual(stacks[i], o.stacks[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -70,6 +70,11 @@ public abstract class AbstractSpell implements Spell {
         dirty = true;
     }
 
+    @Override
+    public final void clearDirty() {
+        dirty = false;
+    }
+
     @Override
     public final boolean isHidden() {
         return hidden;
@@ -18,6 +18,7 @@ import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.particle.UParticles;
 import com.minelittlepony.unicopia.projectile.MagicProjectileEntity;
 import com.minelittlepony.unicopia.projectile.ProjectileDelegate;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
 import com.minelittlepony.unicopia.util.shape.Sphere;
 
 import net.minecraft.entity.Entity;
@@ -28,6 +29,7 @@ import net.minecraft.item.Item;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.predicate.entity.EntityPredicates;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.EntityHitResult;
@@ -145,12 +147,12 @@ public class DarkVortexSpell extends AttractiveSpell implements ProjectileDelega
 
             if (radius > 2) {
                 Vec3d origin = getOrigin(source);
-                new Sphere(false, radius).translate(origin).getBlockPositions().forEach(i -> {
+                new Sphere(false, radius).translate(origin).forEachBlockPosition(i -> {
                     if (!canAffect(source, i)) {
                         return;
                     }
                     if (source.getOrigin().isWithinDistance(i, getEventHorizonRadius() / 2)) {
-                        source.asWorld().breakBlock(i, false);
+                        BlockEditQueue.of((ServerWorld)source.asWorld()).breakBlock(i, false);
                     } else {
                         CatapultSpell.createBlockEntity(source.asWorld(), i, e -> {
                             applyRadialEffect(source, e, e.getPos().distanceTo(origin), radius);
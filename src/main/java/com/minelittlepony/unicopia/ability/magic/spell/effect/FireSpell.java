@@ -11,6 +11,7 @@ import com.minelittlepony.unicopia.block.state.StateMaps;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.projectile.MagicProjectileEntity;
 import com.minelittlepony.unicopia.projectile.ProjectileDelegate;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
 import com.minelittlepony.unicopia.util.shape.Sphere;
 
 import net.minecraft.block.Block;
@@ -87,7 +88,7 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
                 if (world.isAir(pos.up())) {
 
                     if (world.random.nextInt(300) == 0) {
-                        world.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
+                        BlockEditQueue.setBlockState(world, pos.up(), Blocks.FIRE.getDefaultState(), Block.NOTIFY_ALL);
                     }
 
                     return true;
@@ -100,19 +101,19 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
                 return true;
             } else if (state.isIn(BlockTags.SAND) && world.random.nextInt(10) == 0) {
                 if (isSurroundedBySand(world, pos)) {
-                    world.setBlockState(pos, Blocks.GLASS.getDefaultState());
+                    BlockEditQueue.setBlockState(world, pos, Blocks.GLASS.getDefaultState(), Block.NOTIFY_ALL);
 
                     playEffect(world, pos);
                     return true;
                 }
             } else if (state.isIn(BlockTags.LEAVES)) {
                 if (world.isAir(pos.up())) {
-                    world.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
+                    BlockEditQueue.setBlockState(world, pos.up(), Blocks.FIRE.getDefaultState(), Block.NOTIFY_ALL);
 
                     playEffect(world, pos);
                     return true;
                 }
-            } else if (StateMaps.FIRE_AFFECTED.convert(world, pos)) {
+            } else if (StateMaps.FIRE_AFFECTED.convertBatched(world, pos)) {
                 playEffect(world, pos);
                 return true;
             }
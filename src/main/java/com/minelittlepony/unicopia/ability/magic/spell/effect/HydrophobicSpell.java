@@ -68,8 +68,7 @@ public class HydrophobicSpell extends AbstractSpell {
                return false;
             });
 
-            area.getBlockPositions().forEach(pos -> {
-                pos = new BlockPos(pos);
+            area.forEachBlockPosition(pos -> {
                 BlockState state = world.getBlockState(pos);
 
                 if (state.getFluidState().isIn(affectedFluid)) {
@@ -77,10 +76,10 @@ public class HydrophobicSpell extends AbstractSpell {
 
                     if (block instanceof FluidBlock) {
                         world.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_LISTENERS);
-                        storedFluidPositions.add(new Entry(pos, state));
+                        storedFluidPositions.add(new Entry(pos.toImmutable(), state));
                     } else if (state.contains(Properties.WATERLOGGED)) {
                         world.setBlockState(pos, state.cycle(Properties.WATERLOGGED), Block.NOTIFY_LISTENERS);
-                        storedFluidPositions.add(new Entry(pos, state));
+                        storedFluidPositions.add(new Entry(pos.toImmutable(), state));
                     }
                 }
             });
@@ -90,8 +89,7 @@ public class HydrophobicSpell extends AbstractSpell {
             }
 
             double range = getRange(source);
-            var entry = Ether.get(source.asWorld()).getOrCreate(this, source);
-            entry.radius =  (float)range;
+            Ether.get(source.asWorld()).getOrCreate(this, source, (float)range);
 
             source.spawnParticles(new Sphere(true, range), 10, pos -> {
                 BlockPos bp = BlockPos.ofFloored(pos);
@@ -176,7 +174,7 @@ public class HydrophobicSpell extends AbstractSpell {
 
     public static boolean blocksFluidFlow(BlockView world, BlockPos pos, FluidState state) {
         if (world instanceof ServerWorld sw) {
-            return Ether.get(sw).anyMatch(SpellType.HYDROPHOBIC, entry -> {
+            return Ether.get(sw).anyMatch(SpellType.HYDROPHOBIC, pos, entry -> {
                 var spell = entry.getSpell();
                 var target = entry.entity.getTarget().orElse(null);
                 return spell != null && target != null && spell.blocksFlow(entry, target.pos(), pos, state);
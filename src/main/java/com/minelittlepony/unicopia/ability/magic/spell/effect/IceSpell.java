@@ -10,6 +10,7 @@ import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.block.state.StateMaps;
 import com.minelittlepony.unicopia.block.state.StatePredicate;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
 import com.minelittlepony.unicopia.util.PosHelper;
 import com.minelittlepony.unicopia.util.VecHelper;
 import com.minelittlepony.unicopia.util.shape.Shape;
@@ -45,9 +46,12 @@ public class IceSpell extends AbstractSpell {
         boolean submerged = source.asEntity().isSubmergedInWater() || source.asEntity().isSubmergedIn(FluidTags.LAVA);
 
         long blocksAffected = OUTER_RANGE.translate(source.getOrigin()).getBlockPositions().filter(i -> {
-            if (source.canModifyAt(i) && applyBlockSingle(source.asEntity(), source.asWorld(), i, situation)) {
+            // blocks around a submerged caster are cleared straight after being frozen, so they can't wait for the end of the tick
+            boolean clearing = submerged & source.getOrigin().isWithinDistance(i, RADIUS - 1);
 
-                if (submerged & source.getOrigin().isWithinDistance(i, RADIUS - 1)) {
+            if (source.canModifyAt(i) && applyBlockSingle(source.asEntity(), source.asWorld(), i, situation, !clearing)) {
+
+                if (clearing) {
                     BlockState state = source.asWorld().getBlockState(i);
                     if (state.isIn(BlockTags.ICE) || state.isOf(Blocks.OBSIDIAN)) {
                         source.asWorld().setBlockState(i, Blocks.AIR.getDefaultState(), Block.NOTIFY_NEIGHBORS);
@@ -95,10 +99,15 @@ public class IceSpell extends AbstractSpell {
         }
     }
 
-    private boolean applyBlockSingle(Entity owner, World world, BlockPos pos, Situation situation) {
+    private boolean applyBlockSingle(Entity owner, World world, BlockPos pos, Situation situation, boolean batched) {
         BlockState state = world.getBlockState(pos);
 
-        if ((situation == Situation.PROJECTILE && StateMaps.SNOW_PILED.convert(world, pos))
+        if (batched) {
+            if ((situation == Situation.PROJECTILE && StateMaps.SNOW_PILED.convertBatched(world, pos))
+                || StateMaps.ICE_AFFECTED.convertBatched(world, pos)) {
+                return true;
+            }
+        } else if ((situation == Situation.PROJECTILE && StateMaps.SNOW_PILED.convert(world, pos))
             || StateMaps.ICE_AFFECTED.convert(world, pos)) {
             return true;
         }
@@ -113,7 +122,7 @@ public class IceSpell extends AbstractSpell {
         if (state.isIn(BlockTags.ICE)
                 && world.random.nextInt(10) == 0
                 && isSurroundedByIce(world, pos)) {
-            world.setBlockState(pos, Blocks.PACKED_ICE.getDefaultState());
+            BlockEditQueue.setBlockState(world, pos, Blocks.PACKED_ICE.getDefaultState(), Block.NOTIFY_ALL);
             return true;
         }
 
@@ -130,7 +139,7 @@ public class IceSpell extends AbstractSpell {
         BlockState state = world.getBlockState(pos);
 
         if (state.isAir() || StatePredicate.isPlant(state)) {
-            world.setBlockState(pos, Blocks.SNOW.getDefaultState(), 3);
+            BlockEditQueue.setBlockState(world, pos, Blocks.SNOW.getDefaultState(), Block.NOTIFY_ALL);
         }
     }
 }
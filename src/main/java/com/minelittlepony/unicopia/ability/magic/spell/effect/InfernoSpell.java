@@ -39,7 +39,7 @@ public class InfernoSpell extends FireSpell {
             for (int i = 0; i < radius; i++) {
                 BlockPos pos = BlockPos.ofFloored(shape.computePoint(w.random).add(origin));
 
-                if (source.canModifyAt(pos) && converter.convert(w, pos)) {
+                if (source.canModifyAt(pos) && converter.convertBatched(w, pos)) {
                     playEffect(w, pos);
                 }
             }
@@ -3,9 +3,11 @@ package com.minelittlepony.unicopia.ability.magic.spell.trait;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -17,6 +19,8 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.client.gui.ItemTraitsTooltipRenderer;
 import com.minelittlepony.unicopia.util.InventoryUtil;
@@ -41,15 +45,17 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.registry.Registries;
 
 public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
-    public static final SpellTraits EMPTY = new SpellTraits(Map.of());
-    private static final SpellTraits SPAWN_EGG_TRAITS = new SpellTraits(Map.of(Trait.LIFE, 20F));
+    private static final Trait[] TRAITS = Trait.values();
+
+    public static final SpellTraits EMPTY = new SpellTraits(new float[TRAITS.length], 0);
+    private static final SpellTraits SPAWN_EGG_TRAITS = new Builder().with(Trait.LIFE, 20F).build();
 
     private static Map<Identifier, SpellTraits> REGISTRY = new HashMap<>();
     static final Map<Trait, List<Item>> ITEMS = new HashMap<>();
 
     public static final Codec<SpellTraits> CODEC = Codec.unboundedMap(Trait.CODEC, Codec.FLOAT).flatXmap(
             map -> DataResult.success(fromEntries(map.entrySet().stream()).orElse(EMPTY)),
-            traits -> DataResult.success(traits.traits)
+            traits -> DataResult.success(traits.toMap())
     );
 
     public static void load(Map<Identifier, SpellTraits> newRegistry) {
@@ -71,26 +77,70 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
         return new HashMap<>(REGISTRY);
     }
 
-    private final Map<Trait, Float> traits;
-
-    SpellTraits(Map<Trait, Float> traits) {
-        this.traits = traits;
-    }
-
-    SpellTraits(SpellTraits from) {
-        this(new EnumMap<>(from.traits));
+    /**
+     * Trait values indexed by ordinal. Absent traits are stored as zero.
+     * Never modified once a SpellTraits has been constructed.
+     */
+    private final float[] values;
+    private final int size;
+
+    @Nullable
+    private Set<Map.Entry<Trait, Float>> entries;
+
+    private SpellTraits(float[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Wraps an array of values, taking ownership of it.
+     */
+    private static SpellTraits of(float[] values) {
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 0) {
+                // normalise -0 so equals and hashCode agree
+                values[i] = 0;
+            } else {
+                size++;
+            }
+        }
+        return size == 0 ? EMPTY : new SpellTraits(values, size);
     }
 
     public float getCorruption() {
-        return (float)stream().filter(e -> e.getValue() != 0).mapToDouble(e -> e.getKey().getGroup().getCorruption()).sum();
+        float corruption = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                corruption += TRAITS[i].getGroup().getCorruption();
+            }
+        }
+        return corruption;
     }
 
     public SpellTraits multiply(float factor) {
-        return factor == 0 ? EMPTY : map(v -> v * factor);
+        if (factor == 0 || isEmpty()) {
+            return EMPTY;
+        }
+        if (factor == 1) {
+            return this;
+        }
+        float[] result = new float[values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[i] * factor;
+        }
+        return of(result);
     }
 
     public SpellTraits add(float amount) {
-        return amount == 0 ? this : map(v -> v + amount);
+        if (amount == 0 || isEmpty()) {
+            return this;
+        }
+        float[] result = new float[values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[i] == 0 ? 0 : values[i] + amount;
+        }
+        return of(result);
     }
 
     public SpellTraits add(SpellTraits traits) {
@@ -106,13 +156,18 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
             return this;
         }
 
-        Map<Trait, Float> newMap = new EnumMap<>(traits);
-        newMap.entrySet().forEach(entry -> entry.setValue(function.apply(entry.getKey(), entry.getValue())));
-        return fromEntries(newMap.entrySet().stream()).orElse(EMPTY);
+        float[] result = new float[values.length];
+        for (int i = 0; i < result.length; i++) {
+            if (values[i] != 0) {
+                Float value = function.apply(TRAITS[i], values[i]);
+                result[i] = value == null ? 0 : value;
+            }
+        }
+        return of(result);
     }
 
     public boolean isEmpty() {
-        return traits.isEmpty();
+        return size == 0;
     }
 
     public boolean isPresent() {
@@ -120,9 +175,12 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public boolean includes(SpellTraits other) {
-        return other.stream().allMatch(pair -> {
-            return get(pair.getKey()) >= pair.getValue();
-        });
+        for (int i = 0; i < values.length; i++) {
+            if (other.values[i] != 0 && values[i] < other.values[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -131,7 +189,16 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public Set<Map.Entry<Trait, Float>> entries() {
-        return traits.entrySet();
+        if (entries == null) {
+            Set<Map.Entry<Trait, Float>> entries = new LinkedHashSet<>(size);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != 0) {
+                    entries.add(Map.entry(TRAITS[i], values[i]));
+                }
+            }
+            this.entries = Collections.unmodifiableSet(entries);
+        }
+        return entries;
     }
 
     public Stream<Map.Entry<Trait, Float>> stream() {
@@ -139,18 +206,28 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public float getOrDefault(Trait trait, float def) {
-        float i = traits.getOrDefault(trait, def);
+        float i = values[trait.ordinal()];
         return i == 0 ? def : i;
     }
 
     public float get(Trait trait) {
-        return getOrDefault(trait, 0F);
+        return values[trait.ordinal()];
     }
 
     public float get(Trait trait, float min, float max) {
         return MathHelper.clamp(get(trait), min, max);
     }
 
+    private Map<Trait, Float> toMap() {
+        Map<Trait, Float> map = new EnumMap<>(Trait.class);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                map.put(TRAITS[i], values[i]);
+            }
+        }
+        return map;
+    }
+
     @Environment(EnvType.CLIENT)
     public void appendTooltip(List<Text> tooltip) {
         if (isEmpty()) {
@@ -161,31 +238,37 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
 
     public NbtCompound toNbt() {
         NbtCompound nbt = new NbtCompound();
-        traits.forEach((key, value) -> nbt.putFloat(key.getId().toString(), value));
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                nbt.putFloat(TRAITS[i].getId().toString(), values[i]);
+            }
+        }
         return nbt;
     }
 
     public void write(PacketByteBuf buf) {
-        buf.writeInt(traits.size());
-        traits.forEach((trait, value) -> {
-            buf.writeIdentifier(trait.getId());
-            buf.writeFloat(value);
-        });
+        buf.writeInt(size);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                buf.writeIdentifier(TRAITS[i].getId());
+                buf.writeFloat(values[i]);
+            }
+        }
     }
 
     @Override
     public String toString() {
-        return "SpellTraits[" + traits.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",")) + "]";
+        return "SpellTraits[" + stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",")) + "]";
     }
 
     @Override
     public int hashCode() {
-        return traits.hashCode();
+        return Arrays.hashCode(values);
     }
 
     @Override
     public boolean equals(Object other) {
-        return this == other || other instanceof SpellTraits && Objects.equals(traits, ((SpellTraits) other).traits);
+        return this == other || other instanceof SpellTraits && Arrays.equals(values, ((SpellTraits) other).values);
     }
 
     public static SpellTraits union(SpellTraits a, SpellTraits b) {
@@ -195,18 +278,19 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
         if (b.isEmpty()) {
             return a;
         }
-        Map<Trait, Float> traits = new HashMap<>();
-        combine(traits, a.traits);
-        combine(traits, b.traits);
-        return traits.isEmpty() ? EMPTY : new SpellTraits(traits);
+        float[] result = new float[TRAITS.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a.values[i] + b.values[i];
+        }
+        return of(result);
     }
 
     public static SpellTraits union(SpellTraits...many) {
-        Map<Trait, Float> traits = new HashMap<>();
+        Builder builder = new Builder();
         for (SpellTraits i : many) {
-            combine(traits, i.traits);
+            builder.add(i);
         }
-        return traits.isEmpty() ? EMPTY : new SpellTraits(traits);
+        return builder.build();
     }
 
     public static SpellTraits of(Inventory inventory) {
@@ -214,7 +298,11 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public static SpellTraits of(Collection<ItemStack> stacks) {
-        return fromEntries(stacks.stream().flatMap(a -> of(a).entries().stream())).orElse(SpellTraits.EMPTY);
+        Builder builder = new Builder();
+        for (ItemStack stack : stacks) {
+            builder.add(of(stack));
+        }
+        return builder.build();
     }
 
     public static SpellTraits of(ItemStack stack) {
@@ -265,12 +353,12 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public static SpellTraits fromPacket(PacketByteBuf buf) {
-        Map<Trait, Float> entries = new HashMap<>();
         int count = buf.readInt();
         if (count <= 0) {
             return SpellTraits.EMPTY;
         }
 
+        Builder builder = new Builder();
         for (int i = 0; i < count; i++) {
             Identifier id = buf.readIdentifier();
             float value = buf.readFloat();
@@ -278,14 +366,9 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
                 continue;
             }
 
-            Trait.fromId(id).ifPresent(trait -> {
-                entries.compute(trait, (k, v) -> v == null ? value : (v + value));
-            });
-        }
-        if (entries.isEmpty()) {
-            return SpellTraits.EMPTY;
+            Trait.fromId(id).ifPresent(trait -> builder.add(trait, value));
         }
-        return new SpellTraits(entries);
+        return builder.build();
     }
 
     public static Optional<SpellTraits> fromString(String traits) {
@@ -304,41 +387,49 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public static Optional<SpellTraits> fromEntries(Stream<Map.Entry<Trait, Float>> entries) {
-        var result = collect(entries);
-
-        if (result.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(new SpellTraits(result));
+        Builder builder = new Builder();
+        entries.filter(Objects::nonNull).forEach(e -> builder.add(e.getKey(), e.getValue()));
+        return Optional.of(builder.build()).filter(SpellTraits::isPresent);
     }
 
-    static void combine(Map<Trait, Float> to, Map<Trait, Float> from) {
-        if (from.isEmpty()) {
-            return;
+    /**
+     * Accumulates trait values in place before producing an immutable {@link SpellTraits}.
+     */
+    public static final class Builder {
+        private final float[] values = new float[TRAITS.length];
+
+        public Builder with(Trait trait, float amount) {
+            values[trait.ordinal()] = amount;
+            return this;
         }
-        from.forEach((trait, value) -> {
-            if (value != 0) {
-                to.compute(trait, (k, v) -> v == null ? value : (v + value));
-            }
-        });
-    }
 
-    static Map<Trait, Float> collect(Stream<Map.Entry<Trait, Float>> entries) {
-        return entries.filter(Objects::nonNull)
-                .filter(e -> e.getValue() != 0)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a + b, () -> new EnumMap<>(Trait.class)));
-    }
+        public Builder add(Trait trait, float amount) {
+            values[trait.ordinal()] += amount;
+            return this;
+        }
 
-    public static final class Builder {
-        private final Map<Trait, Float> traits = new EnumMap<>(Trait.class);
+        public Builder add(SpellTraits traits) {
+            if (traits.isEmpty()) {
+                return this;
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] += traits.values[i];
+            }
+            return this;
+        }
 
-        public Builder with(Trait trait, float amount) {
-            traits.put(trait, amount);
+        public Builder add(SpellTraits traits, float factor) {
+            if (traits.isEmpty() || factor == 0) {
+                return this;
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] += traits.values[i] * factor;
+            }
             return this;
         }
 
         public SpellTraits build() {
-            return fromEntries(traits.entrySet().stream()).orElse(SpellTraits.EMPTY);
+            return of(values.clone());
         }
     }
 }
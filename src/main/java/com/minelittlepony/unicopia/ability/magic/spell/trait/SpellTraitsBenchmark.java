@@ -0,0 +1,118 @@
+package com.minelittlepony.unicopia.ability.magic.spell.trait;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import com.minelittlepony.unicopia.Unicopia;
+
+/**
+ * Compares the array-backed {@link SpellTraits} against the map-based implementation it replaced
+ * for the operations used by spells and the spellbook: scaling, merging nine slots and reading a single trait.
+ * <p>
+ * Enabled with {@code -Dunicopia.debug.benchmarkTraits=true}
+ */
+public interface SpellTraitsBenchmark {
+    int SAMPLES = 9;
+    int ITERATIONS = 200000;
+
+    static void run() {
+        Random rng = new Random(0);
+        Trait[] traits = Trait.values();
+
+        SpellTraits[] dense = new SpellTraits[SAMPLES];
+        @SuppressWarnings("unchecked")
+        Map<Trait, Float>[] maps = new Map[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            SpellTraits.Builder builder = new SpellTraits.Builder();
+            Map<Trait, Float> map = new EnumMap<>(Trait.class);
+            for (int j = 0; j < 4; j++) {
+                Trait trait = traits[rng.nextInt(traits.length)];
+                float value = 1 + rng.nextInt(10);
+                builder.with(trait, value);
+                map.put(trait, value);
+            }
+            dense[i] = builder.build();
+            maps[i] = map;
+        }
+
+        report("union of " + SAMPLES, () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += SpellTraits.union(dense).hashCode();
+            }
+            return sink;
+        }, () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += MapTraits.union(maps).hashCode();
+            }
+            return sink;
+        });
+        report("multiply", () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += dense[i % SAMPLES].multiply(1.5F).hashCode();
+            }
+            return sink;
+        }, () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += MapTraits.multiply(maps[i % SAMPLES], 1.5F).hashCode();
+            }
+            return sink;
+        });
+        report("get", () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += (long)dense[i % SAMPLES].get(Trait.POWER);
+            }
+            return sink;
+        }, () -> {
+            long sink = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += (long)(float)maps[i % SAMPLES].getOrDefault(Trait.POWER, 0F);
+            }
+            return sink;
+        });
+    }
+
+    private static void report(String name, LongSupplier dense, LongSupplier map) {
+        // warm up both before timing either
+        dense.getAsLong();
+        map.getAsLong();
+        Unicopia.LOGGER.info("Spell traits benchmark for {}: array {}ns/op, map {}ns/op", name, measure(dense), measure(map));
+    }
+
+    private static String measure(LongSupplier operation) {
+        long start = System.nanoTime();
+        long sink = operation.getAsLong();
+        double elapsed = (System.nanoTime() - start) / (double)ITERATIONS;
+        return String.format("%.1f (%d)", elapsed, sink & 0xF);
+    }
+
+    /**
+     * The boxed map operations SpellTraits used before it was backed by an array.
+     */
+    interface MapTraits {
+        static Map<Trait, Float> union(Map<Trait, Float>[] many) {
+            Map<Trait, Float> traits = new HashMap<>();
+            for (Map<Trait, Float> i : many) {
+                i.forEach((trait, value) -> {
+                    if (value != 0) {
+                        traits.compute(trait, (k, v) -> v == null ? value : (v + value));
+                    }
+                });
+            }
+            return traits;
+        }
+
+        static Map<Trait, Float> multiply(Map<Trait, Float> traits, float factor) {
+            Map<Trait, Float> newMap = new EnumMap<>(traits);
+            newMap.entrySet().forEach(entry -> entry.setValue(entry.getValue() * factor));
+            return newMap;
+        }
+    }
+}
@@ -7,10 +7,8 @@ import com.minelittlepony.unicopia.server.world.ZapAppleStageStore;
 
 import net.minecraft.block.*;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.BlockSoundGroup;
 import net.minecraft.util.math.*;
-import net.minecraft.util.math.random.Random;
 import net.minecraft.world.*;
 
 public class BaseZapAppleLeavesBlock extends LeavesBlock implements TintedBlock, ZapStagedBlock {
@@ -36,13 +34,16 @@ public class BaseZapAppleLeavesBlock extends LeavesBlock implements TintedBlock,
         updateStage(state, world, pos);
     }
 
+    @Deprecated
     @Override
-    public void scheduledTick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
-        super.scheduledTick(state, world, pos, random);
-        if (state.get(PERSISTENT)) {
-            return;
-        }
-        tryAdvanceStage(state, world, pos, random);
+    public void onStateReplaced(BlockState state, World world, BlockPos pos, BlockState newState, boolean moved) {
+        super.onStateReplaced(state, world, pos, newState, moved);
+        stopTracking(newState, world, pos);
+    }
+
+    @Override
+    public boolean canChangeStage(BlockState state) {
+        return !state.get(PERSISTENT);
     }
 
     @Override
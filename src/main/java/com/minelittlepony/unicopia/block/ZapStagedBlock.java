@@ -13,30 +13,44 @@ import net.minecraft.world.World;
 public interface ZapStagedBlock {
     ZapAppleStageStore.Stage getStage(BlockState state);
 
+    /**
+     * Whether this block follows the zap apple stages. Blocks that don't are never tracked.
+     */
+    default boolean canChangeStage(BlockState state) {
+        return true;
+    }
+
     default void updateStage(BlockState state, World world, BlockPos pos) {
         if (!(world instanceof ServerWorld sw)) {
             return;
         }
-        ZapAppleStageStore.Stage currentStage = ZapAppleStageStore.get(sw).getStage();
+        ZapAppleStageStore store = ZapAppleStageStore.get(sw);
+        ZapAppleStageStore.Stage currentStage = store.getStage();
         if (currentStage != getStage(state)) {
             state = getState(currentStage);
             world.setBlockState(pos, state);
         }
-        world.scheduleBlockTick(pos, state.getBlock(), 1);
+        store.track(pos);
+    }
+
+    default void stopTracking(BlockState newState, World world, BlockPos pos) {
+        if (world instanceof ServerWorld sw && !(newState.getBlock() instanceof ZapStagedBlock)) {
+            ZapAppleStageStore.get(sw).untrack(pos);
+        }
     }
 
-    default void tryAdvanceStage(BlockState state, ServerWorld world, BlockPos pos, Random random) {
+    /**
+     * Moves this block to the current zap apple stage.
+     * Called by the {@link ZapAppleStageStore} once this block's turn to change comes around.
+     */
+    default void advanceStage(BlockState state, ServerWorld world, BlockPos pos, Random random) {
         ZapAppleStageStore store = ZapAppleStageStore.get(world);
         ZapAppleStageStore.Stage currentStage = store.getStage();
-        if (!world.isDay() && currentStage != getStage(state)) {
-            int transitionRate = getTransitionRate(currentStage);
-            if (transitionRate == 0 || random.nextInt(transitionRate) == 0) {
-                state = getState(currentStage);
-                world.setBlockState(pos, state);
-                onStageChanged(store, currentStage, world, state, pos, random);
-            }
+        if (currentStage != getStage(state)) {
+            state = getState(currentStage);
+            world.setBlockState(pos, state);
+            onStageChanged(store, currentStage, world, state, pos, random);
         }
-        world.scheduleBlockTick(pos, state.getBlock(), 1);
     }
 
     default int getTransitionRate(ZapAppleStageStore.Stage stage) {
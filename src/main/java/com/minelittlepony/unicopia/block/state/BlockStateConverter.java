@@ -5,6 +5,8 @@ import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
+
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.enums.DoubleBlockHalf;
@@ -45,6 +47,19 @@ public interface BlockStateConverter {
      *
      */
     default boolean convert(World world, BlockPos pos) {
+        return convert(world, pos, world::setBlockState);
+    }
+
+    /**
+     * Attempts to convert a block state at a position, handing the change to the world's
+     * {@link BlockEditQueue} to be applied at the end of the tick.
+     * Returns true if the block will be changed.
+     */
+    default boolean convertBatched(World world, BlockPos pos) {
+        return convert(world, pos, (p, state, flags) -> BlockEditQueue.setBlockState(world, p, state, flags));
+    }
+
+    private boolean convert(World world, BlockPos pos, Setter setter) {
         BlockState state = world.getBlockState(pos);
 
         if (!canConvert(state)) {
@@ -58,7 +73,7 @@ public interface BlockStateConverter {
         }
 
         if (!newState.contains(Properties.DOUBLE_BLOCK_HALF)) {
-            world.setBlockState(pos, newState, Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
+            setter.setBlockState(pos, newState, Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
             return true;
         }
 
@@ -67,12 +82,16 @@ public interface BlockStateConverter {
         BlockPos other = lower ? pos.up() : pos.down();
 
         if (world.getBlockState(other).isOf(state.getBlock())) {
-            world.setBlockState(other, newState.with(Properties.DOUBLE_BLOCK_HALF, lower ? DoubleBlockHalf.UPPER : DoubleBlockHalf.LOWER), Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
-            world.setBlockState(pos, newState, Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
+            setter.setBlockState(other, newState.with(Properties.DOUBLE_BLOCK_HALF, lower ? DoubleBlockHalf.UPPER : DoubleBlockHalf.LOWER), Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
+            setter.setBlockState(pos, newState, Block.FORCE_STATE | Block.NOTIFY_LISTENERS);
 
             return true;
         }
 
         return false;
     }
+
+    interface Setter {
+        void setBlockState(BlockPos pos, BlockState state, int flags);
+    }
 }
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.google.gson.*;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.world.World;
@@ -19,6 +20,9 @@ public class JsonReversableBlockStateConverter implements ReversableBlockStateCo
     @Nullable
     private ReversableBlockStateConverter inverse;
 
+    @Nullable
+    private volatile Table table;
+
     public JsonReversableBlockStateConverter(JsonElement json) {
         this(new ArrayList<>(), null);
         json.getAsJsonArray().forEach(entry -> {
@@ -33,15 +37,26 @@ public class JsonReversableBlockStateConverter implements ReversableBlockStateCo
 
     @Override
     public boolean canConvert(@Nullable BlockState state) {
-        return entries.stream().anyMatch(entry -> entry.canConvert(state));
+        return state != null && getTable().convertible().get(Block.getRawIdFromState(state));
     }
 
     @Override
     public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-        return entries.stream().filter(entry -> entry.canConvert(state))
-                .findFirst()
-                .map(entry -> entry.getConverted(world, state))
-                .orElse(state);
+        int id = Block.getRawIdFromState(state);
+        Table table = getTable();
+        if (!table.convertible().get(id)) {
+            return state;
+        }
+        Object result = table.results()[id];
+        return result instanceof BlockStateConverter converter ? converter.getConverted(world, state) : (BlockState)result;
+    }
+
+    private Table getTable() {
+        Table table = this.table;
+        if (table == null || table.generation() != StateMapLoader.INSTANCE.getGeneration()) {
+            this.table = table = Table.compile(entries);
+        }
+        return table;
     }
 
     @Override
@@ -56,6 +71,30 @@ public class JsonReversableBlockStateConverter implements ReversableBlockStateCo
         return inverse;
     }
 
+    /**
+     * A lookup of every block state by raw id to the result of the first entry that matches it.
+     * Results are either the converted state, for entries whose change is constant,
+     * or the entry itself, for changes that depend on the world.
+     */
+    private record Table(int generation, BitSet convertible, Object[] results) {
+        static Table compile(List<BlockStateConverter> entries) {
+            int generation = StateMapLoader.INSTANCE.getGeneration();
+            BitSet convertible = new BitSet(Block.STATE_IDS.size());
+            Object[] results = new Object[Block.STATE_IDS.size()];
+            for (BlockState state : Block.STATE_IDS) {
+                int id = Block.getRawIdFromState(state);
+                for (BlockStateConverter entry : entries) {
+                    if (entry.canConvert(state)) {
+                        convertible.set(id);
+                        results[id] = entry instanceof Entry e && e.stateChange().isConstant() ? e.getConverted(null, state) : entry;
+                        break;
+                    }
+                }
+            }
+            return new Table(generation, convertible, results);
+        }
+    }
+
     record Entry (
             Predicate<BlockState> match,
             StateChange stateChange,
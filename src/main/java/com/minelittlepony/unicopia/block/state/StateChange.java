@@ -43,6 +43,11 @@ public abstract class StateChange {
                     });
                 }
 
+                @Override
+                public boolean isConstant() {
+                    return chance <= 0;
+                }
+
                 @Override
                 public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
                     if (chance > 0 && world.random.nextFloat() > chance) {
@@ -60,6 +65,11 @@ public abstract class StateChange {
             final float chance = JsonHelper.getFloat(json, "chance", -1);
 
             return new StateChange() {
+                @Override
+                public boolean isConstant() {
+                    return chance <= 0;
+                }
+
                 @Override
                 public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
                     if (chance > 0 && world.random.nextFloat() > chance) {
@@ -77,6 +87,11 @@ public abstract class StateChange {
             final float chance = JsonHelper.getFloat(json, "chance", -1);
 
             return new StateChange() {
+                @Override
+                public boolean isConstant() {
+                    return chance <= 0;
+                }
+
                 @Override
                 public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
                     if (chance > 0 && world.random.nextFloat() > chance) {
@@ -92,6 +107,14 @@ public abstract class StateChange {
         return Optional.empty();
     }
 
+    /**
+     * Whether this change always produces the same result for a given state.
+     * Constant changes do not use the world and may be evaluated ahead of time by passing a null world.
+     */
+    public boolean isConstant() {
+        return false;
+    }
+
     public abstract @NotNull BlockState getConverted(World world, @NotNull BlockState state);
 
     public static StateChange fromJson(JsonObject json) {
@@ -34,6 +34,8 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
 
     private Map<Identifier, ReversableBlockStateConverter> converters = new HashMap<>();
 
+    private volatile int generation;
+
     public StateMapLoader() {
         super(Resources.GSON, "state_maps");
     }
@@ -43,6 +45,18 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
         return ID;
     }
 
+    /**
+     * Incremented whenever the compiled state tables need to be rebuilt,
+     * either because the state maps were reloaded or because block tags changed.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public void invalidate() {
+        generation++;
+    }
+
     @Override
     protected Map<Identifier, JsonElement> prepare(ResourceManager resourceManager, Profiler profiler) {
         Map<Identifier, JsonElement> map = Maps.newHashMap();
@@ -89,6 +103,7 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
                 Map.Entry::getKey,
                 entry -> new JsonReversableBlockStateConverter(entry.getValue())
         ));
+        invalidate();
     }
 
     static class Indirect<T extends BlockStateConverter> implements ReversableBlockStateConverter {
@@ -99,25 +114,34 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
             this.id = id;
             this.inverse = inverse.orElseGet(() -> new StateMapLoader.Indirect<>(id, Optional.of(this)) {
                 @Override
-                public Optional<BlockStateConverter> get() {
-                    return Optional.ofNullable(INSTANCE.converters.get(id)).map(map -> map.getInverse());
+                @Nullable
+                protected BlockStateConverter getOrNull() {
+                    ReversableBlockStateConverter map = INSTANCE.converters.get(id);
+                    return map == null ? null : map.getInverse();
                 }
             });
         }
 
         @Override
         public boolean canConvert(@Nullable BlockState state) {
-            return get().filter(map -> map.canConvert(state)).isPresent();
+            BlockStateConverter map = getOrNull();
+            return map != null && map.canConvert(state);
         }
 
         @Override
         public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-            return get().map(map -> map.getConverted(world, state)).orElse(state);
+            BlockStateConverter map = getOrNull();
+            return map == null ? state : map.getConverted(world, state);
         }
 
         @SuppressWarnings("unchecked")
         public Optional<T> get() {
-            return Optional.ofNullable((T)INSTANCE.converters.get(id));
+            return Optional.ofNullable((T)getOrNull());
+        }
+
+        @Nullable
+        protected BlockStateConverter getOrNull() {
+            return INSTANCE.converters.get(id);
         }
 
         @Override
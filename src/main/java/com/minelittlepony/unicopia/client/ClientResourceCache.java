@@ -0,0 +1,149 @@
+package com.minelittlepony.unicopia.client;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.InteractionManager;
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
+import com.minelittlepony.unicopia.ability.data.tree.TreeTypes;
+import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
+import com.minelittlepony.unicopia.client.gui.spellbook.ClientChapters;
+import com.minelittlepony.unicopia.client.gui.spellbook.SpellbookChapterList.Chapter;
+import com.minelittlepony.unicopia.diet.PonyDiets;
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgResourceCacheState;
+import com.minelittlepony.unicopia.network.MsgServerResources;
+import com.minelittlepony.unicopia.network.MsgServerResources.Section;
+import com.minelittlepony.unicopia.network.ServerResourceCache;
+
+import io.netty.buffer.Unpooled;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+
+/**
+ * Keeps a copy on disk of the last version of each resource section received from a server,
+ * so joining a server whose resources have not changed does not require them to be sent again.
+ */
+public class ClientResourceCache {
+    public static final ClientResourceCache INSTANCE = new ClientResourceCache();
+
+    private final Path directory = FabricLoader.getInstance().getGameDir().resolve("unicopia").resolve("resource_cache");
+
+    private final long[] applied = new long[Section.VALUES.length];
+
+    /**
+     * Tells the server which sections we already have.
+     */
+    public void onConnect() {
+        Arrays.fill(applied, 0);
+        long[] hashes = new long[Section.VALUES.length];
+        for (Section section : Section.VALUES) {
+            hashes[section.ordinal()] = readHash(section);
+        }
+        Channel.CLIENT_RESOURCE_CACHE_STATE.sendToServer(new MsgResourceCacheState(hashes));
+    }
+
+    public void onDisconnect() {
+        Arrays.fill(applied, 0);
+    }
+
+    public void receive(MsgServerResources packet) {
+        long[] hashes = packet.hashes();
+        boolean missing = false;
+        for (Section section : Section.VALUES) {
+            int i = section.ordinal();
+            if (hashes[i] == applied[i]) {
+                continue;
+            }
+
+            byte[] payload = packet.payloads()[i];
+            if (payload == null) {
+                payload = read(section, hashes[i]);
+                if (payload == null) {
+                    hashes[i] = 0;
+                    missing = true;
+                    continue;
+                }
+            } else {
+                write(section, hashes[i], payload);
+            }
+
+            apply(section, new PacketByteBuf(Unpooled.wrappedBuffer(payload)));
+            applied[i] = hashes[i];
+        }
+
+        if (missing) {
+            // our cache was changed or removed since we connected, ask again for what we don't have
+            Channel.CLIENT_RESOURCE_CACHE_STATE.sendToServer(new MsgResourceCacheState(hashes));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Section section, PacketByteBuf buffer) {
+        switch (section) {
+            case TRAITS -> SpellTraits.load(buffer.readMap(PacketByteBuf::readIdentifier, SpellTraits::fromPacket));
+            case CHAPTERS -> ClientChapters.load((Map<Identifier, Chapter>)InteractionManager.instance().readChapters(buffer));
+            case TREE_TYPES -> TreeTypes.load(buffer.readMap(PacketByteBuf::readIdentifier, TreeTypeLoader.TreeTypeDef::new));
+            case DIETS -> PonyDiets.load(new PonyDiets(buffer));
+        }
+    }
+
+    private Path getPath(Section section) {
+        return directory.resolve(section.name().toLowerCase(Locale.ROOT) + ".bin");
+    }
+
+    private long readHash(Section section) {
+        Path path = getPath(section);
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return input.readInt() == ServerResourceCache.FORMAT_VERSION ? input.readLong() : 0;
+        } catch (IOException e) {
+            Unicopia.LOGGER.warn("Could not read cached resources {}", path, e);
+            return 0;
+        }
+    }
+
+    @Nullable
+    private byte[] read(Section section, long hash) {
+        Path path = getPath(section);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != ServerResourceCache.FORMAT_VERSION || input.readLong() != hash) {
+                return null;
+            }
+            byte[] payload = new byte[input.readInt()];
+            input.readFully(payload);
+            return ServerResourceCache.hash(payload) == hash ? payload : null;
+        } catch (IOException e) {
+            Unicopia.LOGGER.warn("Could not read cached resources {}", path, e);
+            return null;
+        }
+    }
+
+    private void write(Section section, long hash, byte[] payload) {
+        Path path = getPath(section);
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                output.writeInt(ServerResourceCache.FORMAT_VERSION);
+                output.writeLong(hash);
+                output.writeInt(payload.length);
+                output.write(payload);
+            }
+        } catch (IOException e) {
+            Unicopia.LOGGER.warn("Could not write cached resources {}", path, e);
+        }
+    }
+}
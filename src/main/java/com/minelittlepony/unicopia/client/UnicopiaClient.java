@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import com.minelittlepony.common.client.gui.element.Button;
 import com.minelittlepony.common.event.ScreenInitCallback;
 import com.minelittlepony.common.event.ScreenInitCallback.ButtonList;
+import com.minelittlepony.unicopia.Debug;
 import com.minelittlepony.unicopia.InteractionManager;
 import com.minelittlepony.unicopia.Race;
 import com.minelittlepony.unicopia.Unicopia;
@@ -15,17 +16,20 @@ import com.minelittlepony.unicopia.client.gui.ShapingBenchScreen;
 import com.minelittlepony.unicopia.client.gui.UHud;
 import com.minelittlepony.unicopia.client.gui.spellbook.SpellbookScreen;
 import com.minelittlepony.unicopia.client.minelittlepony.MineLPDelegate;
+import com.minelittlepony.unicopia.client.render.model.BakedModelBenchmark;
 import com.minelittlepony.unicopia.client.render.shader.ViewportShader;
 import com.minelittlepony.unicopia.client.render.spell.SpellEffectsRenderDispatcher;
 import com.minelittlepony.unicopia.container.*;
 import com.minelittlepony.unicopia.entity.player.PlayerCamera;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.network.handler.ClientNetworkHandlerImpl;
+import com.minelittlepony.unicopia.server.world.FlowerIndex;
 import com.minelittlepony.unicopia.server.world.WeatherConditions;
 import com.minelittlepony.unicopia.server.world.ZapAppleStageStore;
 import com.minelittlepony.unicopia.util.Lerp;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -119,6 +123,8 @@ public class UnicopiaClient implements ClientModInitializer {
 
         ClientTickEvents.END_CLIENT_TICK.register(this::onTick);
         ClientTickEvents.END_WORLD_TICK.register(this::onWorldTick);
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> FlowerIndex.of(world).forgetChunk(chunk));
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> FlowerIndex.of(world).forgetChunk(chunk));
         ScreenInitCallback.EVENT.register(this::onScreenInit);
         ItemTooltipCallback.EVENT.register(new ModifierTooltipRenderer());
 
@@ -126,6 +132,10 @@ public class UnicopiaClient implements ClientModInitializer {
         ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(SpellEffectsRenderDispatcher.INSTANCE);
 
         Unicopia.SIDE = () -> Optional.ofNullable(MinecraftClient.getInstance().player).map(Pony::of);
+
+        if (Debug.BENCHMARK_MODELS) {
+            BakedModelBenchmark.run();
+        }
     }
 
     private void onTick(MinecraftClient client) {
@@ -153,7 +163,9 @@ public class UnicopiaClient implements ClientModInitializer {
     }
 
     private Float getTargetRainGradient(ClientWorld world, BlockPos pos, float tickDelta) {
-        if (WeatherConditions.get(world).isInRangeOfStorm(pos)) {
+        // the same distance around the camera that the vanilla rain renderer draws rain in
+        int radius = MinecraftClient.isFancyGraphicsOrBetter() ? 10 : 5;
+        if (WeatherConditions.get(world).isStormInArea(pos.getX() - radius, pos.getZ() - radius, pos.getX() + radius, pos.getZ() + radius, pos.getY())) {
             if (originalRainGradient == null) {
                 originalRainGradient = world.getRainGradient(tickDelta);
             }
@@ -146,6 +146,7 @@ public class LanSettingsScreen extends GameGui {
             config.speciesWhiteList.get().clear();
         }
         config.save();
+        Race.onWhitelistChanged();
     }
 
     public static Style createStyle(Race race) {
@@ -1,18 +1,24 @@
 package com.minelittlepony.unicopia.client.render.model;
 
-import java.util.List;
-
 import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 import org.joml.Vector4f;
 
-import com.minelittlepony.unicopia.client.render.RenderUtil;
-
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.util.math.MatrixStack;
 
+/**
+ * A fixed set of quads whose positions and texture coordinates are packed into a single flat array
+ * when the model is built.
+ * <p>
+ * Rendering folds the requested scale into the position matrix and transforms each vertex inline,
+ * skipping the texture transform entirely when no UV scaling has been requested.
+ */
 public class BakedModel {
-    protected final List<RenderUtil.Vertex> vertices = new ObjectArrayList<>();
+    static final int STRIDE = 5;
+
+    private final FloatArrayList vertices = new FloatArrayList();
 
     private final Matrix4f textureMatrix = new Matrix4f();
 
@@ -24,12 +30,20 @@ public class BakedModel {
         getTextureMatrix().scale(uScale, vScale, 1);
     }
 
+    public int getVertexCount() {
+        return vertices.size() / STRIDE;
+    }
+
     protected void addVertex(Vector4f vertex) {
         addVertex(vertex.x, vertex.y, vertex.z, (vertex.x + 1) * 0.5F, (vertex.z + 1) * 0.5F);
     }
 
     protected void addVertex(float x, float y, float z, float u, float v) {
-        vertices.add(new RenderUtil.Vertex(x, y, z, u, v));
+        vertices.add(x);
+        vertices.add(y);
+        vertices.add(z);
+        vertices.add(u);
+        vertices.add(v);
     }
 
     public final void render(MatrixStack matrices, VertexConsumer buffer, int light, int overlay, float scale, float r, float g, float b, float a) {
@@ -38,15 +52,29 @@ public class BakedModel {
             return;
         }
 
-        matrices.push();
-        matrices.scale(scale, scale, scale);
-        Matrix4f positionmatrix = matrices.peek().getPositionMatrix();
-        for (RenderUtil.Vertex vertex : vertices) {
-            Vector4f pos = vertex.position(positionmatrix);
-            Vector4f tex = vertex.texture(textureMatrix);
-            buffer.vertex(pos.x, pos.y, pos.z, r, g, b, a, tex.x, tex.y, overlay, light, 0, 0, 0);
+        Matrix4f m = matrices.peek().getPositionMatrix();
+        float[] data = vertices.elements();
+        int length = vertices.size();
+        boolean transformUVs = !isIdentity(textureMatrix);
+
+        for (int i = 0; i < length; i += STRIDE) {
+            float x = data[i] * scale;
+            float y = data[i + 1] * scale;
+            float z = data[i + 2] * scale;
+            float u = data[i + 3];
+            float v = data[i + 4];
+            if (transformUVs) {
+                float tu = textureMatrix.m00() * u + textureMatrix.m10() * v + textureMatrix.m20() + textureMatrix.m30();
+                v = textureMatrix.m01() * u + textureMatrix.m11() * v + textureMatrix.m21() + textureMatrix.m31();
+                u = tu;
+            }
+            buffer.vertex(
+                    m.m00() * x + m.m10() * y + m.m20() * z + m.m30(),
+                    m.m01() * x + m.m11() * y + m.m21() * z + m.m31(),
+                    m.m02() * x + m.m12() * y + m.m22() * z + m.m32(),
+                    r, g, b, a, u, v, overlay, light, 0, 0, 0
+            );
         }
-        matrices.pop();
         textureMatrix.identity();
     }
 
@@ -56,15 +84,39 @@ public class BakedModel {
             return;
         }
 
-        matrices.push();
-        matrices.scale(scale, scale, scale);
-        Matrix4f positionmatrix = matrices.peek().getPositionMatrix();
-        for (RenderUtil.Vertex vertex : vertices) {
-            Vector4f pos = vertex.position(positionmatrix);
-            Vector4f tex = vertex.texture(textureMatrix);
-            buffer.vertex(pos.x, pos.y, pos.z).texture(tex.x, tex.y).color(r, g, b, a).next();
+        Matrix4f m = matrices.peek().getPositionMatrix();
+        float[] data = vertices.elements();
+        int length = vertices.size();
+        boolean transformUVs = !isIdentity(textureMatrix);
+
+        for (int i = 0; i < length; i += STRIDE) {
+            float x = data[i] * scale;
+            float y = data[i + 1] * scale;
+            float z = data[i + 2] * scale;
+            float u = data[i + 3];
+            float v = data[i + 4];
+            if (transformUVs) {
+                float tu = textureMatrix.m00() * u + textureMatrix.m10() * v + textureMatrix.m20() + textureMatrix.m30();
+                v = textureMatrix.m01() * u + textureMatrix.m11() * v + textureMatrix.m21() + textureMatrix.m31();
+                u = tu;
+            }
+            buffer.vertex(
+                    m.m00() * x + m.m10() * y + m.m20() * z + m.m30(),
+                    m.m01() * x + m.m11() * y + m.m21() * z + m.m31(),
+                    m.m02() * x + m.m12() * y + m.m22() * z + m.m32()
+            ).texture(u, v).color(r, g, b, a).next();
         }
-        matrices.pop();
         textureMatrix.identity();
     }
+
+    private static boolean isIdentity(Matrix4f matrix) {
+        return (matrix.properties() & Matrix4fc.PROPERTY_IDENTITY) != 0;
+    }
+
+    /**
+     * Copies out this model's packed vertices as {@code x, y, z, u, v} runs.
+     */
+    float[] toArray() {
+        return vertices.toFloatArray();
+    }
 }
@@ -0,0 +1,137 @@
+package com.minelittlepony.unicopia.client.render.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.client.gui.DrawableUtil;
+import com.minelittlepony.unicopia.client.render.RenderUtil;
+
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.RotationAxis;
+
+/**
+ * Measures how long it takes to emit the vertices for a scene of active shields, comparing
+ * the packed {@link BakedModel} path against transforming each vertex through {@link RenderUtil.Vertex}.
+ * <p>
+ * Enabled with {@code -Dunicopia.debug.benchmarkModels=true}
+ */
+public interface BakedModelBenchmark {
+    int SHIELDS = 100;
+    int FRAMES = 200;
+
+    static void run() {
+        SphereModel model = new SphereModel(40, 40, DrawableUtil.PI);
+        List<RenderUtil.Vertex> legacyVertices = new ArrayList<>();
+        float[] packed = model.toArray();
+        for (int i = 0; i < packed.length; i += BakedModel.STRIDE) {
+            legacyVertices.add(new RenderUtil.Vertex(packed[i], packed[i + 1], packed[i + 2], packed[i + 3], packed[i + 4]));
+        }
+        Matrix4f textureMatrix = new Matrix4f();
+
+        Sink sink = new Sink();
+        MatrixStack matrices = new MatrixStack();
+
+        report("per-vertex transform", model, sink, () -> renderScene(matrices, scale -> {
+            matrices.push();
+            matrices.scale(scale, scale, scale);
+            Matrix4f positionMatrix = matrices.peek().getPositionMatrix();
+            for (RenderUtil.Vertex vertex : legacyVertices) {
+                Vector4f pos = vertex.position(positionMatrix);
+                Vector4f tex = vertex.texture(textureMatrix);
+                sink.vertex(pos.x, pos.y, pos.z, 1, 1, 1, 0.08F, tex.x, tex.y, 1, 0xF000F0, 0, 0, 0);
+            }
+            matrices.pop();
+        }));
+        report("packed baked model", model, sink, () -> renderScene(matrices, scale -> {
+            model.render(matrices, sink, 0xF000F0, 1, scale, 1, 1, 1, 0.08F);
+        }));
+    }
+
+    /**
+     * Lays out the shields in a grid around the origin and draws the three layered spheres
+     * the shield renderer draws for each one when viewed in third-person.
+     */
+    private static void renderScene(MatrixStack matrices, ShieldLayer layer) {
+        for (int i = 0; i < SHIELDS; i++) {
+            matrices.push();
+            matrices.translate((i % 10) * 3, 1.5F, (i / 10) * 3);
+            matrices.multiply(RotationAxis.POSITIVE_X.rotationDegrees(180));
+            layer.render(2.37F);
+            layer.render(2.33F);
+            layer.render(2.39F);
+            matrices.pop();
+        }
+    }
+
+    private static void report(String name, BakedModel model, Sink sink, Runnable scene) {
+        scene.run();
+        sink.count = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            scene.run();
+        }
+        long elapsed = (System.nanoTime() - start) / FRAMES;
+        Unicopia.LOGGER.info("Model benchmark for {} with {} shields ({} vertices each): {}ms/frame ({})",
+                name, SHIELDS, model.getVertexCount(), String.format("%.3f", elapsed / 1000000D), sink.count);
+    }
+
+    interface ShieldLayer {
+        void render(float scale);
+    }
+
+    /**
+     * A vertex consumer that only keeps a running total of what it's given so the work can't be optimised away.
+     */
+    final class Sink implements VertexConsumer {
+        private double count;
+
+        @Override
+        public VertexConsumer vertex(double x, double y, double z) {
+            count += x + y + z;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int red, int green, int blue, int alpha) {
+            return this;
+        }
+
+        @Override
+        public VertexConsumer texture(float u, float v) {
+            count += u + v;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer overlay(int u, int v) {
+            return this;
+        }
+
+        @Override
+        public VertexConsumer light(int u, int v) {
+            return this;
+        }
+
+        @Override
+        public VertexConsumer normal(float x, float y, float z) {
+            return this;
+        }
+
+        @Override
+        public void next() {
+        }
+
+        @Override
+        public void fixedColor(int red, int green, int blue, int alpha) {
+        }
+
+        @Override
+        public void unfixColor() {
+        }
+    }
+}
@@ -26,6 +26,7 @@ class RacelistCommand {
                     boolean result = Unicopia.getConfig().speciesWhiteList.get().add(race.getId().toString());
 
                     Unicopia.getConfig().save();
+                    Race.onWhitelistChanged();
 
                     return result;
                 }))
@@ -36,6 +37,7 @@ class RacelistCommand {
                     boolean result = Unicopia.getConfig().speciesWhiteList.get().remove(race.getId().toString());
 
                     Unicopia.getConfig().save();
+                    Race.onWhitelistChanged();
 
                     return result;
                 }))
@@ -0,0 +1,51 @@
+package com.minelittlepony.unicopia.command;
+
+import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
+import com.minelittlepony.unicopia.entity.Living;
+import com.minelittlepony.unicopia.entity.collision.EntityCollisionIndex;
+import com.minelittlepony.unicopia.server.world.AirflowField;
+import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
+import com.minelittlepony.unicopia.server.world.TickScheduler;
+import com.minelittlepony.unicopia.server.world.ZapAppleStageStore;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+
+class StatsCommand {
+    static LiteralArgumentBuilder<ServerCommandSource> create() {
+        return CommandManager.literal("stats").requires(s -> s.hasPermissionLevel(2))
+                .executes(context -> get(context.getSource()));
+    }
+
+    static int get(ServerCommandSource source) {
+        ServerWorld world = source.getWorld();
+        source.sendFeedback(() -> Text.translatable("commands.stats.header", world.getRegistryKey().getValue().toString()), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.destruction", BlockDestructionManager.of(world).getTrackedBlockCount()), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.collidables", EntityCollisionIndex.of(world).getTrackedEntityCount()), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.airflow", AirflowField.of(world).getCachedColumnCount()), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.zap_apples", ZapAppleStageStore.get(world).getTrackedBlockCount()), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.disguises", countLiveDisguises(world)), false);
+        source.sendFeedback(() -> Text.translatable("commands.stats.block_edits", BlockEditQueue.of(world).getPendingEdits()), false);
+        TickScheduler scheduler = TickScheduler.of(world);
+        source.sendFeedback(() -> Text.translatable("commands.stats.scheduled_tasks", scheduler.getPendingTasks(), String.format("%.3f", scheduler.getLastTickDuration() / 1000000D)), false);
+        return 0;
+    }
+
+    private static int countLiveDisguises(ServerWorld world) {
+        int count = 0;
+        for (Entity entity : world.iterateEntities()) {
+            if (Living.getOrEmpty(entity)
+                    .flatMap(living -> living.getSpellSlot().get(SpellPredicate.IS_DISGUISE, false))
+                    .filter(spell -> spell.getDisguise().isPresent())
+                    .isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -20,6 +20,7 @@ class UnicopiaCommand {
                 .then(DisguiseCommand.create(registries))
                 .then(CastCommand.create(registries))
                 .then(TraitCommand.create())
-                .then(ManaCommand.create());
+                .then(ManaCommand.create())
+                .then(StatsCommand.create());
     }
 }
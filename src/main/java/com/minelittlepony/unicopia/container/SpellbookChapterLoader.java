@@ -14,8 +14,7 @@ import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.ability.magic.spell.crafting.IngredientWithSpell;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.client.gui.spellbook.SpellbookChapterList.*;
-import com.minelittlepony.unicopia.network.Channel;
-import com.minelittlepony.unicopia.network.MsgServerResources;
+import com.minelittlepony.unicopia.network.ServerResourceCache;
 import com.minelittlepony.unicopia.util.Resources;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.JsonOps;
@@ -55,10 +54,8 @@ public class SpellbookChapterLoader extends JsonDataLoader implements Identifiab
     public void sendUpdate(MinecraftServer server) {
         if (dirty) {
             dirty = false;
-            MsgServerResources msg = new MsgServerResources();
-            server.getWorlds().forEach(world -> {
-                Channel.SERVER_RESOURCES.sendToAllPlayers(msg, world);
-            });
+            ServerResourceCache.INSTANCE.invalidate();
+            ServerResourceCache.INSTANCE.sendUpdates(server);
         }
     }
 
@@ -2,7 +2,6 @@ package com.minelittlepony.unicopia.container.inventory;
 
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.container.SpellbookScreenHandler;
-import com.minelittlepony.unicopia.util.InventoryUtil;
 
 import net.minecraft.inventory.CraftingInventory;
 import net.minecraft.item.ItemStack;
@@ -35,9 +34,10 @@ public class SpellbookInventory extends CraftingInventory {
     }
 
     public SpellTraits getTraits() {
-        return SpellTraits.union(InventoryUtil.slots(this)
-                .map(slot -> SpellTraits.of(getStack(slot)).multiply(getFactor(slot)))
-                .toArray(SpellTraits[]::new)
-        );
+        SpellTraits.Builder builder = new SpellTraits.Builder();
+        for (int slot = 0; slot < size(); slot++) {
+            builder.add(SpellTraits.of(getStack(slot)), getFactor(slot));
+        }
+        return builder.build();
     }
 }
\ No newline at end of file
@@ -69,12 +69,16 @@ public record DietProfile(
 
     @Nullable
     public FoodComponent getAdjustedFoodComponent(ItemStack stack) {
+        return getAdjustedFoodComponent(stack, getRatios(stack));
+    }
+
+    @Nullable
+    public FoodComponent getAdjustedFoodComponent(ItemStack stack, Pair<Float, Float> ratios) {
         var food = stack.getItem().getFoodComponent();
         if (this == EMPTY) {
             return food;
         }
 
-        var ratios = getRatios(stack);
         if (isInedible(ratios)) {
             return null;
         }
@@ -103,8 +107,11 @@ public record DietProfile(
     }
 
     public void appendTooltip(ItemStack stack, @Nullable PlayerEntity user, List<Text> tooltip, TooltipContext context) {
+        appendTooltip(stack, getRatios(stack), tooltip, context);
+    }
+
+    public void appendTooltip(ItemStack stack, Pair<Float, Float> ratios, List<Text> tooltip, TooltipContext context) {
         var food = stack.getItem().getFoodComponent();
-        var ratios = getRatios(stack);
         if (food == null || isInedible(ratios)) {
             if (stack.getUseAction() != UseAction.DRINK) {
                 tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.not_edible")).formatted(Formatting.DARK_GRAY));
@@ -3,6 +3,7 @@ package com.minelittlepony.unicopia.diet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -10,9 +11,12 @@ import com.minelittlepony.unicopia.Race;
 import com.minelittlepony.unicopia.entity.effect.FoodPoisoningStatusEffect;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.ItemDuck;
+import com.mojang.datafixers.util.Pair;
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.FoodComponent;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.text.Text;
@@ -25,6 +29,8 @@ public class PonyDiets implements DietView {
     private final Map<Race, DietProfile> diets;
     private final List<Effect> effects;
 
+    private final Map<Race, Map<Item, Entry>> index = new ConcurrentHashMap<>();
+
     private static PonyDiets INSTANCE = new PonyDiets(Map.of(), List.of());
 
     public static PonyDiets getInstance() {
@@ -35,6 +41,13 @@ public class PonyDiets implements DietView {
         INSTANCE = diets;
     }
 
+    /**
+     * Discards everything worked out from the current item tags.
+     */
+    public static void invalidate() {
+        INSTANCE.index.clear();
+    }
+
     PonyDiets(Map<Race, DietProfile> diets, List<Effect> effects) {
         this.diets = diets;
         this.effects = effects;
@@ -57,8 +70,24 @@ public class PonyDiets implements DietView {
         return effects.stream().filter(effect -> effect.test(stack)).findFirst().orElse(Effect.EMPTY);
     }
 
-    private Effect getEffects(ItemStack stack, Pony pony) {
-        return getDiet(pony).findEffect(stack).orElseGet(() -> getEffects(stack));
+    /**
+     * Gets what a pony's diet makes of an item.
+     * <p>
+     * Every rule in a diet is matched by item tags alone, so the answer is the same for every stack of an item
+     * and is only worked out the first time that item is seen for each race.
+     */
+    private Entry getEntry(ItemStack stack, Pony pony) {
+        Race race = pony.getObservedSpecies();
+        return index.computeIfAbsent(race, r -> new ConcurrentHashMap<>()).computeIfAbsent(stack.getItem(), item -> {
+            DietProfile diet = getDiet(pony);
+            Optional<Effect> dietEffect = diet.findEffect(stack);
+            Effect globalEffect = getEffects(stack);
+            return new Entry(
+                    dietEffect.orElse(globalEffect),
+                    dietEffect.flatMap(Effect::foodComponent).or(globalEffect::foodComponent),
+                    diet.getRatios(stack)
+            );
+        });
     }
 
     @Override
@@ -71,7 +100,7 @@ public class PonyDiets implements DietView {
     @Override
     public void finishUsing(ItemStack stack, World world, LivingEntity entity) {
         if (initEdibility(stack, entity)) {
-            Pony.of(entity).ifPresent(pony -> getEffects(stack, pony).afflict(pony, stack));
+            Pony.of(entity).ifPresent(pony -> getEntry(stack, pony).effect().afflict(pony, stack));
         }
     }
 
@@ -81,8 +110,9 @@ public class PonyDiets implements DietView {
             Pony pony = Pony.of(user);
 
             tooltip.add(Text.translatable("unicopia.diet.information").formatted(Formatting.DARK_PURPLE));
-            getEffects(stack, pony).appendTooltip(stack, tooltip, context);
-            getDiet(pony).appendTooltip(stack, user, tooltip, context);
+            Entry entry = getEntry(stack, pony);
+            entry.effect().appendTooltip(stack, tooltip, context);
+            getDiet(pony).appendTooltip(stack, entry.ratios(), tooltip, context);
         }
     }
 
@@ -90,20 +120,23 @@ public class PonyDiets implements DietView {
         ItemDuck item = (ItemDuck)stack.getItem();
         item.resetFoodComponent();
         return Pony.of(user).filter(pony -> {
-            DietProfile diet = getDiet(pony);
+            Entry entry = getEntry(stack, pony);
 
             if (!stack.isFood() && pony.getObservedSpecies().hasIronGut()) {
-                diet.findEffect(stack)
-                    .flatMap(Effect::foodComponent)
-                    .or(() -> getEffects(stack).foodComponent())
-                    .ifPresent(item::setFoodComponent);
+                entry.ironGutFoodComponent().ifPresent(item::setFoodComponent);
             }
 
             if (stack.isFood()) {
-                item.setFoodComponent(diet.getAdjustedFoodComponent(stack));
+                item.setFoodComponent(getDiet(pony).getAdjustedFoodComponent(stack, entry.ratios()));
             }
 
             return true;
         }).isPresent();
     }
+
+    private record Entry(
+            Effect effect,
+            Optional<FoodComponent> ironGutFoodComponent,
+            Pair<Float, Float> ratios
+    ) {}
 }
@@ -15,6 +15,7 @@ public interface DynamicLightSource {
     static final class LightEmitter<T extends Entity & DynamicLightSource> {
         @Nullable
         private BlockPos lastPos;
+        private int lastLight;
 
         private final T entity;
 
@@ -32,17 +33,26 @@ public interface DynamicLightSource {
             int light = entity.getLightLevel();
 
             if (light <= 0) {
+                if (lastPos != null) {
+                    remove();
+                    lastPos = null;
+                    lastLight = 0;
+                }
                 return;
             }
 
             BlockPos currentPos = entity.getBlockPos();
+            boolean moved = !currentPos.equals(lastPos);
 
-            if (!currentPos.equals(lastPos) && entity.getWorld().isChunkLoaded(currentPos)) {
-                LightSources.get(entity.getWorld()).addLightSource(entity);
+            if ((moved || light != lastLight) && entity.getWorld().isChunkLoaded(currentPos)) {
+                LightSources.get(entity.getWorld()).updateLightSource(entity, currentPos, light);
+                lastLight = light;
 
                 try {
                     if (lastPos != null) {
-                        entity.getWorld().getLightingProvider().checkBlock(lastPos);
+                        if (moved) {
+                            entity.getWorld().getLightingProvider().checkBlock(lastPos);
+                        }
                         entity.getWorld().getLightingProvider().checkBlock(currentPos);
                     }
                     lastPos = currentPos;
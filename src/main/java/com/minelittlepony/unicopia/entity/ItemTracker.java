@@ -6,6 +6,7 @@ import java.util.stream.Stream;
 
 import com.minelittlepony.unicopia.compat.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.entity.player.Pony;
+import com.minelittlepony.unicopia.item.AmuletItem;
 import com.minelittlepony.unicopia.util.*;
 
 import net.minecraft.entity.LivingEntity;
@@ -33,6 +34,7 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
     }
 
     private final Map<Trackable, Long> items = new HashMap<>();
+    private Set<AmuletItem> activeAmulets = Set.of();
 
     public static Predicate<LivingEntity> wearing(Trackable charm, Predicate<Long> range) {
         return e -> Living.getOrEmpty(e)
@@ -73,7 +75,11 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
     private void update(Living<?> living, Stream<ItemStack> stacks) {
         final Set<Trackable> found = new HashSet<>();
         final Set<ItemStack> foundStacks = new HashSet<>();
+        final Set<AmuletItem> foundAmulets = new HashSet<>();
         stacks.forEach(stack -> {
+            if (stack.getItem() instanceof AmuletItem amulet && amulet.isApplicable(stack)) {
+                foundAmulets.add(amulet);
+            }
             if (stack.getItem() instanceof Trackable trackable) {
                 items.compute(trackable, (item, prev) -> prev == null ? 1 : prev + 1);
                 found.add(trackable);
@@ -88,6 +94,13 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
             return false;
         });
 
+        if (!foundAmulets.equals(activeAmulets)) {
+            activeAmulets = foundAmulets;
+            if (living instanceof Pony pony) {
+                pony.invalidateCompositeRace();
+            }
+        }
+
         if (!(living instanceof Pony)) {
             foundStacks.forEach(stack -> {
                 if (getTicks((Trackable)stack.getItem()) == 1) {
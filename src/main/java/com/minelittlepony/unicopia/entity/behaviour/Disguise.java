@@ -100,7 +100,7 @@ public interface Disguise extends FlightType.Provider, PlayerDimensions.Provider
         behaviour.copyBaseAttributes(owner, entity);
 
         if (tick && !getDisguise().skipsUpdate()) {
-            entity.tick();
+            getDisguise().tick(owner, entity);
         }
 
         if (!(owner instanceof PlayerEntity) && !((LivingEntityDuck)owner).isJumping()) {
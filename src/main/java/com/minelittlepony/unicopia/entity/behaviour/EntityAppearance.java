@@ -286,6 +286,28 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
             || entity instanceof AbstractDecorationEntity;
     }
 
+    /**
+     * Ticks the disguise entity as often as the client player watching its owner needs it to be.
+     * <p>
+     * On the server disguises are always fully ticked, since behaviours such as a creeper's fuse depend on it.
+     * On the client the tick is purely visual, so disguises seen up close are ticked normally, further away they
+     * only receive a full tick every few ticks, and ones out of sight receive none at all.
+     * Whenever a full tick is skipped the entity still gets its base tick, so its air and fire keep counting down at the usual rate.
+     */
+    void tick(LivingEntity owner, Entity entity) {
+        if (!owner.getWorld().isClient) {
+            entity.tick();
+            return;
+        }
+
+        Detail detail = Detail.of(owner);
+        if (detail == Detail.FULL || (detail == Detail.REDUCED && (owner.age + owner.getId()) % Detail.REDUCED_TICK_INTERVAL == 0)) {
+            entity.tick();
+        } else {
+            entity.baseTick();
+        }
+    }
+
     public boolean isAxisAligned() {
         return isAxisAligned(entity);
     }
@@ -380,4 +402,40 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
         getAttachments().forEach(e -> EntityCollisions.getCollissionShapes(e, context, output));
     }
 
+    public enum Detail {
+        /**
+         * The client player is close enough to see every movement. Ticked every tick.
+         */
+        FULL,
+        /**
+         * The client player is too far away to notice small movements. Fully ticked every few ticks.
+         */
+        REDUCED,
+        /**
+         * The client player is too far away to see it. Never fully ticked.
+         */
+        NONE;
+
+        static final int REDUCED_TICK_INTERVAL = 4;
+        private static final double FULL_DETAIL_DISTANCE = 32;
+        private static final double REDUCED_DETAIL_DISTANCE = 128;
+
+        static Detail of(LivingEntity owner) {
+            if (owner instanceof PlayerEntity player && InteractionManager.instance().isClientPlayer(player)) {
+                return FULL;
+            }
+
+            double distance = Double.MAX_VALUE;
+            for (PlayerEntity viewer : owner.getWorld().getPlayers()) {
+                if (InteractionManager.instance().isClientPlayer(viewer)) {
+                    distance = Math.min(distance, viewer.squaredDistanceTo(owner));
+                }
+            }
+
+            if (distance < FULL_DETAIL_DISTANCE * FULL_DETAIL_DISTANCE) {
+                return FULL;
+            }
+            return distance < REDUCED_DETAIL_DISTANCE * REDUCED_DETAIL_DISTANCE ? REDUCED : NONE;
+        }
+    }
 }
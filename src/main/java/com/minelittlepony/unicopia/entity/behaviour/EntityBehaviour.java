@@ -1,5 +1,6 @@
 package com.minelittlepony.unicopia.entity.behaviour;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -16,6 +17,7 @@ import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.util.LimbAnimationUtil;
 import com.minelittlepony.unicopia.util.RegistryUtils;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.Entity.RemovalReason;
 import net.minecraft.entity.EntityDimensions;
@@ -42,6 +44,10 @@ public class EntityBehaviour<T extends Entity> {
 
     private static final EntityBehaviour<Entity> DEFAULT = new EntityBehaviour<>();
     private static final Registry<EntityBehaviour<?>> REGISTRY = RegistryUtils.createSimple(Unicopia.id("entity_behaviour"));
+    /**
+     * Behaviours keyed directly by their entity type, so lookups don't have to go through the type's registry id.
+     */
+    private static final Map<EntityType<?>, EntityBehaviour<?>> BY_TYPE = new Reference2ObjectOpenHashMap<>();
 
     /**
      * Equivalent of the entity#tick method. Called every tick to update th logic for a disguise.
@@ -261,7 +267,7 @@ public class EntityBehaviour<T extends Entity> {
 
     public static <T extends Entity> void register(Supplier<EntityBehaviour<T>> behaviour, EntityType<?>... types) {
         for (EntityType<?> type : types) {
-            Registry.register(REGISTRY, EntityType.getId(type), behaviour.get());
+            BY_TYPE.put(type, Registry.register(REGISTRY, EntityType.getId(type), behaviour.get()));
         }
     }
 
@@ -270,7 +276,7 @@ public class EntityBehaviour<T extends Entity> {
         if (entity == null) {
             return (EntityBehaviour<T>)DEFAULT;
         }
-        return (EntityBehaviour<T>)REGISTRY.getOrEmpty(EntityType.getId(entity.getType())).orElse(DEFAULT);
+        return (EntityBehaviour<T>)BY_TYPE.getOrDefault(entity.getType(), DEFAULT);
     }
 
     static {
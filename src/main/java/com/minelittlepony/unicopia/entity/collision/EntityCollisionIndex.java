@@ -0,0 +1,267 @@
+package com.minelittlepony.unicopia.entity.collision;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.base.Suppliers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.World;
+
+/**
+ * Tracks the entities in a world that contribute extra collision shapes,
+ * such as disguised casters and hot air balloons.
+ * <p>
+ * Entries are bucketed by the chunk sections their shapes occupy, so a collision
+ * query only has to visit the buckets under the queried box. The bounds of each entry
+ * are cached against the entity's position and bounding boxes and only recalculated when those change.
+ * The shapes themselves are still built for each query, since they can depend on who is colliding with them.
+ * <p>
+ * Entries are refreshed by their owners every tick and dropped when their entity is removed.
+ * Any entry that goes more than {@link #STALE_AGE} ticks without being refreshed is treated as gone
+ * and swept out every {@link #SWEEP_INTERVAL} ticks.
+ */
+public class EntityCollisionIndex {
+    private static final int STALE_AGE = 2;
+    /**
+     * Shapes are rebuilt at least this often to pick up changes that don't move the entity,
+     * such as a disguise changing appearance or a balloon part way through inflating.
+     */
+    private static final int REFRESH_INTERVAL = 10;
+    private static final int SWEEP_INTERVAL = 20;
+
+    private final World world;
+
+    private final Map<Entity, Entry> entries = new IdentityHashMap<>();
+    private final Long2ObjectMap<List<Entry>> sections = new Long2ObjectOpenHashMap<>();
+
+    private final List<Entry> expired = new ArrayList<>();
+
+    private int queryId;
+    private long lastSweep;
+
+    public static Supplier<EntityCollisionIndex> create(World world) {
+        return Suppliers.memoize(() -> new EntityCollisionIndex(world));
+    }
+
+    public static EntityCollisionIndex of(World world) {
+        return ((EntityCollisionIndex.Source)world).getCollisionIndex();
+    }
+
+    private EntityCollisionIndex(World world) {
+        this.world = world;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int getTrackedEntityCount() {
+        sweep();
+        return entries.size();
+    }
+
+    /**
+     * Registers or refreshes the shapes contributed by an entity.
+     *
+     * @param entity   The entity that owns the shapes. It is never collided with its own shapes.
+     * @param provider The source of the shapes. For most entities this is the entity itself.
+     */
+    public void update(Entity entity, EntityCollisions.ComplexCollidable provider) {
+        sweepIfDue();
+        Entry entry = entries.computeIfAbsent(entity, Entry::new);
+        entry.lastUpdate = world.getTime();
+
+        Vec3d pos = entity.getPos();
+        List<Box> boxes = MultiBoundingBoxEntity.getBoundingBoxes(entity);
+
+        if (entry.provider == provider
+                && entry.lastUpdate - entry.lastRebuild < REFRESH_INTERVAL
+                && pos.equals(entry.pos)
+                && boxes.equals(entry.boxes)) {
+            return;
+        }
+
+        entry.provider = provider;
+        entry.pos = pos;
+        entry.boxes = boxes;
+        entry.lastRebuild = entry.lastUpdate;
+        unlink(entry);
+        link(entry, getBounds(entity, provider, boxes));
+    }
+
+    public void remove(Entity entity) {
+        Entry entry = entries.remove(entity);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Collects the registered shapes whose bounds intersect the given box.
+     */
+    public void getCollisionShapes(@Nullable Entity entity, Box box, Consumer<VoxelShape> output) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        sweepIfDue();
+
+        ShapeContext context = entity == null ? ShapeContext.absent() : ShapeContext.of(entity);
+
+        int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minX - 1));
+        int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minY - 1));
+        int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minZ - 1));
+        int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxX + 1));
+        int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxY + 1));
+        int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxZ + 1));
+
+        int query = ++queryId;
+        long now = world.getTime();
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    List<Entry> bucket = sections.get(ChunkSectionPos.asLong(x, y, z));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.size(); i++) {
+                        Entry entry = bucket.get(i);
+                        if (entry.lastQuery == query || entry.entity == entity) {
+                            continue;
+                        }
+                        entry.lastQuery = query;
+                        if (isExpired(entry, now)) {
+                            expired.add(entry);
+                            continue;
+                        }
+                        if (entry.bounds.intersects(box)) {
+                            entry.provider.getCollissionShapes(context, output);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            expired.forEach(entry -> remove(entry.entity));
+            expired.clear();
+        }
+    }
+
+    private void sweepIfDue() {
+        if (world.getTime() - lastSweep >= SWEEP_INTERVAL) {
+            sweep();
+        }
+    }
+
+    private void sweep() {
+        long now = world.getTime();
+        lastSweep = now;
+        entries.values().removeIf(entry -> {
+            if (isExpired(entry, now)) {
+                unlink(entry);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static boolean isExpired(Entry entry, long now) {
+        return entry.entity.isRemoved() || now - entry.lastUpdate > STALE_AGE;
+    }
+
+    /**
+     * Finds the area an entry's shapes can occupy. Some blocks (such as powder snow or scaffolding) only have a shape
+     * for certain entities, so the shapes found without a context are combined with the entity's own bounding boxes
+     * and padded out by a block on every side.
+     */
+    private static Box getBounds(Entity entity, EntityCollisions.ComplexCollidable provider, List<Box> boxes) {
+        List<VoxelShape> shapes = new ArrayList<>();
+        provider.getCollissionShapes(ShapeContext.absent(), shapes::add);
+
+        Box bounds = entity.getBoundingBox();
+        for (Box box : boxes) {
+            bounds = bounds.union(box);
+        }
+        for (VoxelShape shape : shapes) {
+            if (!shape.isEmpty()) {
+                bounds = bounds.union(shape.getBoundingBox());
+            }
+        }
+        return bounds.expand(1);
+    }
+
+    private void link(Entry entry, Box bounds) {
+        entry.bounds = bounds;
+
+        int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minX));
+        int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minY));
+        int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minZ));
+        int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxX));
+        int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxY));
+        int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxZ));
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    long section = ChunkSectionPos.asLong(x, y, z);
+                    sections.computeIfAbsent(section, s -> new ArrayList<>()).add(entry);
+                    entry.sections.add(section);
+                }
+            }
+        }
+    }
+
+    private void unlink(Entry entry) {
+        LongIterator iter = entry.sections.iterator();
+        while (iter.hasNext()) {
+            long section = iter.nextLong();
+            List<Entry> bucket = sections.get(section);
+            if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                sections.remove(section);
+            }
+        }
+        entry.sections.clear();
+    }
+
+    private static final class Entry {
+        private final Entity entity;
+        private final LongArrayList sections = new LongArrayList();
+
+        private EntityCollisions.ComplexCollidable provider;
+        @Nullable
+        private Vec3d pos;
+        private List<Box> boxes = List.of();
+        private Box bounds;
+
+        private long lastUpdate;
+        private long lastRebuild;
+        private int lastQuery;
+
+        Entry(Entity entity) {
+            this.entity = entity;
+        }
+    }
+
+    public interface Source {
+        EntityCollisionIndex getCollisionIndex();
+    }
+}
@@ -6,9 +6,6 @@ import java.util.function.Consumer;
 
 import org.jetbrains.annotations.Nullable;
 
-import com.minelittlepony.unicopia.ability.magic.Caster;
-import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
-
 import net.minecraft.block.ShapeContext;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.FallingBlockEntity;
@@ -17,7 +14,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
-import net.minecraft.world.WorldAccess;
+import net.minecraft.world.World;
 
 public class EntityCollisions {
 
@@ -40,19 +37,12 @@ public class EntityCollisions {
         }
     }
 
-    public static List<VoxelShape> getColissonShapes(@Nullable Entity entity, WorldAccess world, Box box) {
-        ShapeContext ctx = entity == null ? ShapeContext.absent() : ShapeContext.of(entity);
-        return collectCollisionBoxes(box, collector -> {
-            world.getOtherEntities(entity, box.expand(50), e -> {
-                Caster.of(e).flatMap(c -> c.getSpellSlot().get(SpellPredicate.IS_DISGUISE, false)).ifPresent(p -> {
-                    p.getDisguise().getCollissionShapes(ctx, collector);
-                });
-                if (e instanceof ComplexCollidable collidable) {
-                    collidable.getCollissionShapes(ctx, collector);
-                }
-                return false;
-            });
-        });
+    public static List<VoxelShape> getColissonShapes(@Nullable Entity entity, World world, Box box) {
+        EntityCollisionIndex index = EntityCollisionIndex.of(world);
+        if (index.isEmpty()) {
+            return List.of();
+        }
+        return collectCollisionBoxes(box, collector -> index.getCollisionShapes(entity, box, collector));
     }
 
     static List<VoxelShape> collectCollisionBoxes(Box box, Consumer<Consumer<VoxelShape>> generator) {
@@ -1,26 +1,19 @@
 package com.minelittlepony.unicopia.entity.duck;
 
-import java.util.Stack;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.minecraft.util.math.BlockPos;
 
 public interface RotatedView {
 
-    Stack<Integer> getRotations();
-
-    boolean hasTransform();
+    Rotations getRotations();
 
     default void pushRotation(int y) {
-        getRotations().add(y);
+        getRotations().push(y);
     }
 
     default void popRotation() {
-        Stack<Integer> rotations = getRotations();
-        synchronized (rotations) {
-            if (!rotations.isEmpty()) {
-                rotations.pop();
-            }
-        }
+        getRotations().pop();
     }
 
     default BlockPos applyRotation(BlockPos pos) {
@@ -32,13 +25,72 @@ public interface RotatedView {
     }
 
     default int applyRotation(int y) {
-        Stack<Integer> rotations = getRotations();
-        synchronized (rotations) {
-            if (!hasTransform() || rotations.isEmpty()) {
+        return getRotations().apply(y);
+    }
+
+    /**
+     * A stack of y-axis mirror planes applied to block lookups while an entity with inverted gravity is ticking its ai.
+     * <p>
+     * The stack belongs to the thread that pushed the first rotation and is invisible to every other thread,
+     * so worldgen and lighting threads reading the same world are never transformed. Ownership is claimed
+     * atomically before the stack is touched, so two threads pushing at once can't both write to it.
+     * When nothing is pushed the only cost of a lookup is a single volatile read.
+     */
+    final class Rotations {
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+
+        private int[] stack = new int[4];
+        private int size;
+        private int suspended;
+
+        public void push(int y) {
+            Thread thread = Thread.currentThread();
+            if (owner.get() != thread) {
+                if (!owner.compareAndSet(null, thread)) {
+                    return;
+                }
+                size = 0;
+                suspended = 0;
+            }
+            if (size == stack.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(stack, 0, grown, 0, size);
+                stack = grown;
+            }
+            stack[size++] = y;
+        }
+
+        public void pop() {
+            if (owner.get() != Thread.currentThread() || size == 0) {
+                return;
+            }
+            if (--size == 0) {
+                owner.set(null);
+            }
+        }
+
+        /**
+         * Stops rotations being applied to nested lookups, such as the chunk access made by a block change
+         * whose position was already rotated by the world.
+         */
+        public void suspend() {
+            if (owner.get() == Thread.currentThread()) {
+                suspended++;
+            }
+        }
+
+        public void resume() {
+            if (owner.get() == Thread.currentThread() && suspended > 0) {
+                suspended--;
+            }
+        }
+
+        public int apply(int y) {
+            Thread owner = this.owner.get();
+            if (owner == null || owner != Thread.currentThread() || suspended > 0) {
                 return y;
             }
-            return y - ((y - rotations.peek()) * 2);
+            return y - ((y - stack[size - 1]) * 2);
         }
     }
-
 }
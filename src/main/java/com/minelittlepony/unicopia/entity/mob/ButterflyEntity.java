@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.server.world.FlowerIndex;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 
 import net.minecraft.block.BlockState;
@@ -250,9 +251,7 @@ public class ButterflyEntity extends AmbientEntity {
         }
 
         flowerPosition = flowerPosition.filter(p -> getWorld().getBlockState(p).isIn(BlockTags.FLOWERS)).or(() -> {
-            return BlockPos.streamOutwards(getBlockPos(), FLOWER_DETECTION_RANGE, FLOWER_DETECTION_RANGE, FLOWER_DETECTION_RANGE)
-                    .filter(p -> !visited.containsKey(p) && getWorld().getBlockState(p).isIn(BlockTags.FLOWERS))
-                    .findFirst()
+            return FlowerIndex.of(getWorld()).findNearest(getBlockPos(), FLOWER_DETECTION_RANGE, p -> !visited.containsKey(p))
                     .map(p -> {
                 visited.put(p, (long)age - 900);
                 return p;
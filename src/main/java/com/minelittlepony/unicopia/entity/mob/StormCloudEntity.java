@@ -178,8 +178,10 @@ public class StormCloudEntity extends Entity implements MagicImmune {
         float size = getSize(1);
 
         if (getWorld().isClient()) {
-            if (isStormy()) {
-                WeatherConditions.get(getWorld()).addStorm(this);
+            if (!isStormy()) {
+                WeatherConditions.get(getWorld()).removeStorm(this);
+            } else {
+                WeatherConditions.get(getWorld()).updateStorm(this);
 
                 float sizeInBlocks = getSizeInBlocks();
                 int area = (int)MathHelper.square(sizeInBlocks);
@@ -302,6 +304,12 @@ public class StormCloudEntity extends Entity implements MagicImmune {
 
     }
 
+    @Override
+    public void onRemoved() {
+        super.onRemoved();
+        WeatherConditions.get(getWorld()).removeStorm(this);
+    }
+
     @Override
     public boolean damage(DamageSource source, float amount) {
         super.damage(source, amount);
@@ -102,6 +102,14 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     private final Interpolator interpolator = new LinearInterpolator();
 
     private Race.Composite compositeRace = Race.UNSET.composite();
+    private boolean compositeRaceDirty = true;
+    @Nullable
+    private NbtCompound observedSpells;
+    @Nullable
+    private String observedRace;
+    @Nullable
+    private String observedSuppressedRace;
+    private int validatedWhitelistRevision = -1;
     private Race respawnRace = Race.UNSET;
 
     private boolean dirty;
@@ -245,6 +253,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     public void setSuppressedRace(Race race) {
         entity.getDataTracker().set(SUPPRESSED_RACE, Race.REGISTRY.getId(race.validate(entity)).toString());
+        invalidateCompositeRace();
     }
 
     public void clearSuppressedRace() {
@@ -381,7 +390,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     @Override
     public boolean beforeUpdate() {
-        if (compositeRace.includes(Race.UNSET) || entity.age % 2 == 0) {
+        if (compositeRace.includes(Race.UNSET) || isCompositeRaceOutdated()) {
             recalculateCompositeRace();
         }
 
@@ -474,7 +483,32 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
         return super.beforeUpdate();
     }
 
+    /**
+     * Marks this player's composite race as needing to be recalculated on their next tick.
+     * Called when something that may grant or take away a race is equipped, applied, or removed.
+     */
+    public void invalidateCompositeRace() {
+        compositeRaceDirty = true;
+    }
+
+    private boolean isCompositeRaceOutdated() {
+        DataTracker tracker = entity.getDataTracker();
+        NbtCompound spells = tracker.get(EFFECT);
+        String race = tracker.get(RACE);
+        String suppressedRace = tracker.get(SUPPRESSED_RACE);
+        // tracked values are only replaced when they change, so comparing instances is enough to spot a change
+        if (spells != observedSpells || race != observedRace || suppressedRace != observedSuppressedRace) {
+            observedSpells = spells;
+            observedRace = race;
+            observedSuppressedRace = suppressedRace;
+            compositeRaceDirty = true;
+        }
+        return compositeRaceDirty;
+    }
+
     private void recalculateCompositeRace() {
+        compositeRaceDirty = false;
+        Race.Composite previousRace = compositeRace;
         Race intrinsicRace = getSpecies();
         Race suppressedRace = getSuppressedRace();
         compositeRace = MetamorphosisStatusEffect.getEffectiveRace(entity, getSpellSlot()
@@ -489,7 +523,9 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
             : null,
             AmuletSelectors.PEARL_NECKLACE.test(entity) ? suppressedRace.or(Race.SEAPONY) : null
         );
-        UCriteria.PLAYER_CHANGE_RACE.trigger(entity);
+        if (!compositeRace.equals(previousRace)) {
+            UCriteria.PLAYER_CHANGE_RACE.trigger(entity);
+        }
     }
 
     @Override
@@ -588,12 +624,16 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     public void tick() {
         super.tick();
 
-        Race currentRace = getSpecies();
-        if (!currentRace.isUnset()) {
-            Race newRace = currentRace.validate(entity);
+        int whitelistRevision = Race.getWhitelistRevision();
+        if (validatedWhitelistRevision != whitelistRevision) {
+            validatedWhitelistRevision = whitelistRevision;
+            Race currentRace = getSpecies();
+            if (!currentRace.isUnset()) {
+                Race newRace = currentRace.validate(entity);
 
-            if (newRace != currentRace) {
-                setSpecies(newRace);
+                if (newRace != currentRace) {
+                    setSpecies(newRace);
+                }
             }
         }
 
@@ -14,6 +14,7 @@ import com.minelittlepony.unicopia.EquinePredicates;
 import com.minelittlepony.unicopia.Race;
 import com.minelittlepony.unicopia.entity.Equine;
 import com.minelittlepony.unicopia.entity.Living;
+import com.minelittlepony.unicopia.entity.collision.EntityCollisionIndex;
 import com.minelittlepony.unicopia.entity.duck.EntityDuck;
 
 import net.minecraft.entity.Entity;
@@ -74,6 +75,12 @@ abstract class MixinEntity implements EntityDuck {
         }
     }
 
+    @Inject(method = "setRemoved", at = @At("TAIL"))
+    private void onSetRemoved(RemovalReason reason, CallbackInfo info) {
+        Entity self = (Entity)(Object)this;
+        EntityCollisionIndex.of(self.getWorld()).remove(self);
+    }
+
     @Inject(method = "updatePassengerPosition(Lnet/minecraft/entity/Entity;Lnet/minecraft/entity/Entity$PositionUpdater;)V",
             at = @At("HEAD"),
             cancellable = true
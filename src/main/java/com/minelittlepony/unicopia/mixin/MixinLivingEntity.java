@@ -2,6 +2,7 @@ package com.minelittlepony.unicopia.mixin;
 
 import java.util.Optional;
 
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.*;
 import org.spongepowered.asm.mixin.gen.Accessor;
 import org.spongepowered.asm.mixin.injection.At;
@@ -17,11 +18,15 @@ import com.minelittlepony.unicopia.ability.magic.spell.AbstractDisguiseSpell;
 import com.minelittlepony.unicopia.entity.*;
 import com.minelittlepony.unicopia.entity.behaviour.EntityAppearance;
 import com.minelittlepony.unicopia.entity.duck.*;
+import com.minelittlepony.unicopia.entity.effect.MetamorphosisStatusEffect;
+import com.minelittlepony.unicopia.entity.player.Pony;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.attribute.DefaultAttributeContainer;
 import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.Hand;
@@ -157,6 +162,32 @@ abstract class MixinLivingEntity extends Entity implements LivingEntityDuck, Equ
         get().onDamage(source, amount).ifPresent(info::setReturnValue);
     }
 
+    @Inject(method = "onStatusEffectApplied(Lnet/minecraft/entity/effect/StatusEffectInstance;Lnet/minecraft/entity/Entity;)V", at = @At("HEAD"))
+    private void onApplyStatusEffect(StatusEffectInstance effect, @Nullable Entity source, CallbackInfo info) {
+        onMetamorphosisChanged(effect.getEffectType());
+    }
+
+    @Inject(method = "onStatusEffectUpgraded(Lnet/minecraft/entity/effect/StatusEffectInstance;ZLnet/minecraft/entity/Entity;)V", at = @At("HEAD"))
+    private void onUpgradeStatusEffect(StatusEffectInstance effect, boolean reapplyEffect, @Nullable Entity source, CallbackInfo info) {
+        onMetamorphosisChanged(effect.getEffectType());
+    }
+
+    @Inject(method = "onStatusEffectRemoved(Lnet/minecraft/entity/effect/StatusEffectInstance;)V", at = @At("HEAD"))
+    private void onRemoveStatusEffect(StatusEffectInstance effect, CallbackInfo info) {
+        onMetamorphosisChanged(effect.getEffectType());
+    }
+
+    @Inject(method = "removeStatusEffectInternal(Lnet/minecraft/entity/effect/StatusEffect;)Lnet/minecraft/entity/effect/StatusEffectInstance;", at = @At("HEAD"))
+    private void onRemoveStatusEffectInternal(StatusEffect type, CallbackInfoReturnable<StatusEffectInstance> info) {
+        onMetamorphosisChanged(type);
+    }
+
+    private void onMetamorphosisChanged(StatusEffect type) {
+        if (type instanceof MetamorphosisStatusEffect && get() instanceof Pony pony) {
+            pony.invalidateCompositeRace();
+        }
+    }
+
     @Inject(method = "writeCustomDataToNbt(Lnet/minecraft/nbt/NbtCompound;)V", at = @At("HEAD"))
     private void onWriteCustomDataToTag(NbtCompound tag, CallbackInfo info) {
         tag.put("unicopia_caster", get().toNBT());
@@ -12,7 +12,9 @@ import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.BlockEditQueue;
 import com.minelittlepony.unicopia.server.world.NocturnalSleepManager;
+import com.minelittlepony.unicopia.server.world.TickScheduler;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -23,9 +25,11 @@ import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.World;
 
 @Mixin(ServerWorld.class)
-abstract class MixinServerWorld extends World implements StructureWorldAccess, NocturnalSleepManager.Source {
+abstract class MixinServerWorld extends World implements StructureWorldAccess, NocturnalSleepManager.Source, TickScheduler.Source, BlockEditQueue.Source {
 
     private NocturnalSleepManager nocturnalSleepManager;
+    private TickScheduler tickScheduler;
+    private BlockEditQueue blockEditQueue;
 
     MixinServerWorld() { super(null, null, null, null, null, false, false, 0, 0); }
 
@@ -49,6 +53,22 @@ abstract class MixinServerWorld extends World implements StructureWorldAccess, N
         return nocturnalSleepManager;
     }
 
+    @Override
+    public TickScheduler getTickScheduler() {
+        if (tickScheduler == null) {
+            tickScheduler = new TickScheduler((ServerWorld)(Object)this);
+        }
+        return tickScheduler;
+    }
+
+    @Override
+    public BlockEditQueue getBlockEditQueue() {
+        if (blockEditQueue == null) {
+            blockEditQueue = new BlockEditQueue((ServerWorld)(Object)this);
+        }
+        return blockEditQueue;
+    }
+
     @Inject(method = "tick(Ljava/util/function/BooleanSupplier;)V", at = @At(
         value = "INVOKE",
         target = "net/minecraft/server/world/ServerWorld.wakeSleepingPlayers()V"
@@ -1,7 +1,6 @@
 package com.minelittlepony.unicopia.mixin;
 
 import java.util.List;
-import java.util.Stack;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -13,9 +12,13 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import com.minelittlepony.unicopia.ability.data.tree.TreeCache;
+import com.minelittlepony.unicopia.entity.collision.EntityCollisionIndex;
 import com.minelittlepony.unicopia.entity.collision.EntityCollisions;
 import com.minelittlepony.unicopia.entity.duck.RotatedView;
+import com.minelittlepony.unicopia.server.world.AirflowField;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
+import com.minelittlepony.unicopia.server.world.FlowerIndex;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.BlockPos;
@@ -25,32 +28,50 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldAccess;
 
 @Mixin(World.class)
-abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, RotatedView {
+abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, EntityCollisionIndex.Source, AirflowField.Source, FlowerIndex.Source, TreeCache.Source, RotatedView {
 
     private final Supplier<BlockDestructionManager> destructions = BlockDestructionManager.create((World)(Object)this);
+    private final Supplier<EntityCollisionIndex> collisionIndex = EntityCollisionIndex.create((World)(Object)this);
+    private final Supplier<AirflowField> airflowField = AirflowField.create((World)(Object)this);
+    private final Supplier<FlowerIndex> flowerIndex = FlowerIndex.create((World)(Object)this);
+    private final Supplier<TreeCache> treeCache = TreeCache.create((World)(Object)this);
 
-    private int recurseCount = 0;
-    private final Stack<Integer> rotations = new Stack<>();
+    private final RotatedView.Rotations rotations = new RotatedView.Rotations();
 
     @Override
-    public Stack<Integer> getRotations() {
+    public RotatedView.Rotations getRotations() {
         return rotations;
     }
 
     @Override
-    public boolean hasTransform() {
-        return recurseCount <= 0;
+    public BlockDestructionManager getDestructionManager() {
+        return destructions.get();
     }
 
     @Override
-    public BlockDestructionManager getDestructionManager() {
-        return destructions.get();
+    public EntityCollisionIndex getCollisionIndex() {
+        return collisionIndex.get();
+    }
+
+    @Override
+    public AirflowField getAirflowField() {
+        return airflowField.get();
+    }
+
+    @Override
+    public FlowerIndex getFlowerIndex() {
+        return flowerIndex.get();
+    }
+
+    @Override
+    public TreeCache getTreeCache() {
+        return treeCache.get();
     }
 
     @Override
     public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, Box box) {
         if (box.getAverageSideLength() >= 1.0E-7D) {
-            List<VoxelShape> shapes = EntityCollisions.getColissonShapes(entity, this, box);
+            List<VoxelShape> shapes = EntityCollisions.getColissonShapes(entity, (World)(Object)this, box);
             if (!shapes.isEmpty()) {
                 return Stream.concat(shapes.stream(), WorldAccess.super.getEntityCollisions(entity, box).stream()).toList();
             }
@@ -62,13 +83,18 @@ abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source
     @ModifyVariable(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("HEAD"))
     private BlockPos modifyBlockPos(BlockPos pos) {
         pos = applyRotation(pos);
-        recurseCount = Math.max(0, recurseCount) + 1;
+        rotations.suspend();
         return pos;
     }
 
     @Inject(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("RETURN"))
     public void onSetBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> info) {
-        recurseCount = Math.max(0, recurseCount - 1);
+        rotations.resume();
+        if (info.getReturnValueZ()) {
+            airflowField.get().invalidate(pos);
+            flowerIndex.get().onBlockChanged(pos, state);
+            treeCache.get().invalidate(pos);
+        }
     }
 }
 
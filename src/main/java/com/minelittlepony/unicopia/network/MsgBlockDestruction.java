@@ -1,29 +1,60 @@
 package com.minelittlepony.unicopia.network;
 
+import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
 import com.sollace.fabwork.api.packets.Packet;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 
 /**
  * Sent by the server to update block destruction progress on the client.
+ * <p>
+ * Only the blocks that changed are sent, as positions relative to their chunk followed by
+ * the new damage as a fixed-point byte.
  */
-public record MsgBlockDestruction (Long2ObjectMap<Float> destructions) implements Packet {
+public record MsgBlockDestruction (long chunkPos, long[] positions, byte[] damage) implements Packet {
+    /**
+     * The maximum number of blocks that can be sent in one packet without going over the 1MiB payload limit.
+     * Each entry takes at most a 5 byte varint plus 1 byte of damage.
+     */
+    public static final int MAX_ENTRIES = (1048576 - 16) / 6;
+
     MsgBlockDestruction(PacketByteBuf buffer) {
-        this(new Long2ObjectOpenHashMap<>());
-        int size = buffer.readInt();
+        this(buffer.readLong(), buffer.readVarInt(), buffer);
+    }
+
+    private MsgBlockDestruction(long chunkPos, int size, PacketByteBuf buffer) {
+        this(chunkPos, new long[size], new byte[size]);
+        int originX = ChunkPos.getPackedX(chunkPos) << 4;
+        int originZ = ChunkPos.getPackedZ(chunkPos) << 4;
         for (int i = 0; i < size; i++) {
-            destructions.put(buffer.readLong(), (Float)buffer.readFloat());
+            int packed = buffer.readVarInt();
+            int y = packed >>> 8;
+            positions[i] = BlockPos.asLong(originX | (packed & 15), (y >>> 1) ^ -(y & 1), originZ | ((packed >> 4) & 15));
+            damage[i] = buffer.readByte();
         }
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeInt(destructions.size());
-        destructions.forEach((p, i) -> {
-            buffer.writeLong(p);
-            buffer.writeFloat(i);
-        });
+        buffer.writeLong(chunkPos);
+        buffer.writeVarInt(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            long pos = positions[i];
+            int y = BlockPos.unpackLongY(pos);
+            buffer.writeVarInt((((y << 1) ^ (y >> 31)) << 8) | ((BlockPos.unpackLongZ(pos) & 15) << 4) | (BlockPos.unpackLongX(pos) & 15));
+            buffer.writeByte(damage[i]);
+        }
+    }
+
+    public void forEach(DestructionConsumer consumer) {
+        for (int i = 0; i < positions.length; i++) {
+            consumer.accept(positions[i], damage[i] < 0 ? BlockDestructionManager.UNSET_DAMAGE : damage[i] / (float)BlockDestructionManager.QUANTIZATION);
+        }
+    }
+
+    public interface DestructionConsumer {
+        void accept(long pos, float amount);
     }
 }
@@ -0,0 +1,47 @@
+package com.minelittlepony.unicopia.network;
+
+import com.minelittlepony.unicopia.particle.ParticleFactoryHelper;
+import com.minelittlepony.unicopia.util.shape.PointGenerator;
+import com.minelittlepony.unicopia.util.shape.ShapeSerializer;
+import com.sollace.fabwork.api.packets.Packet;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
+
+/**
+ * Sent by the server to spawn a number of particles scattered randomly within a shape.
+ * <p>
+ * Only the shape and the random seed are sent; the client picks out the points itself.
+ */
+public record MsgParticleBurst (
+        ParticleEffect effect,
+        PointGenerator shape,
+        int count,
+        long seed
+    ) implements Packet {
+
+    MsgParticleBurst(PacketByteBuf buffer) {
+        this(
+            ParticleFactoryHelper.readEffect(buffer),
+            ShapeSerializer.read(buffer),
+            buffer.readVarInt(),
+            buffer.readLong()
+        );
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        ParticleFactoryHelper.writeEffect(buffer, effect);
+        ShapeSerializer.write(buffer, shape);
+        buffer.writeVarInt(count);
+        buffer.writeLong(seed);
+    }
+
+    public void spawn(World world) {
+        shape.randomPoints(count, Random.create(seed)).forEach(point -> {
+            world.addParticle(effect, point.x, point.y, point.z, 0, 0, 0);
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.minelittlepony.unicopia.network;
+
+import com.sollace.fabwork.api.packets.HandledPacket;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Sent by the client when joining a server to say which versions of each resource section it already has cached.
+ * A hash of zero means the client has nothing for that section.
+ */
+public record MsgResourceCacheState (long[] hashes) implements HandledPacket<ServerPlayerEntity> {
+    MsgResourceCacheState(PacketByteBuf buffer) {
+        this(buffer.readLongArray());
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        buffer.writeLongArray(hashes);
+    }
+
+    @Override
+    public void handle(ServerPlayerEntity sender) {
+        ServerResourceCache.INSTANCE.onCacheState(sender, hashes);
+    }
+}
@@ -1,8 +1,9 @@
 package com.minelittlepony.unicopia.network;
 
-import java.util.*;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
 
-import com.minelittlepony.unicopia.InteractionManager;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.container.SpellbookChapterLoader;
@@ -10,37 +11,55 @@ import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.sollace.fabwork.api.packets.Packet;
 
 import net.minecraft.network.PacketByteBuf;
-import net.minecraft.util.Identifier;
 
+/**
+ * Sends the data-driven resources the client needs to mirror the server.
+ * <p>
+ * Every section is identified by the hash of its contents. The payload for a section is only included
+ * when the receiving client is not already known to have it, otherwise the client loads it from its own cache.
+ */
 public record MsgServerResources (
-        Map<Identifier, SpellTraits> traits,
-        Map<Identifier, ?> chapters,
-        Map<Identifier, TreeTypeLoader.TreeTypeDef> treeTypes,
-        PonyDiets diets
+        long[] hashes,
+        @Nullable byte[][] payloads
     ) implements Packet {
-    public MsgServerResources() {
-        this(
-            SpellTraits.all(),
-            SpellbookChapterLoader.INSTANCE.getChapters(),
-            TreeTypeLoader.INSTANCE.getEntries(),
-            PonyDiets.getInstance()
-        );
-    }
 
     public MsgServerResources(PacketByteBuf buffer) {
-        this(
-            buffer.readMap(PacketByteBuf::readIdentifier, SpellTraits::fromPacket),
-            InteractionManager.instance().readChapters(buffer),
-            buffer.readMap(PacketByteBuf::readIdentifier, TreeTypeLoader.TreeTypeDef::new),
-            new PonyDiets(buffer)
-        );
+        this(new long[Section.VALUES.length], new byte[Section.VALUES.length][]);
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = buffer.readLong();
+            if (buffer.readBoolean()) {
+                payloads[i] = buffer.readByteArray();
+            }
+        }
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeMap(traits, PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
-        buffer.writeMap(chapters, PacketByteBuf::writeIdentifier, (r, v) -> ((SpellbookChapterLoader.Chapter)v).write(r));
-        buffer.writeMap(treeTypes, PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
-        diets.toBuffer(buffer);
+        for (int i = 0; i < hashes.length; i++) {
+            buffer.writeLong(hashes[i]);
+            buffer.writeBoolean(payloads[i] != null);
+            if (payloads[i] != null) {
+                buffer.writeByteArray(payloads[i]);
+            }
+        }
+    }
+
+    public enum Section {
+        TRAITS(buffer -> buffer.writeMap(SpellTraits.all(), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r))),
+        CHAPTERS(buffer -> buffer.writeMap(SpellbookChapterLoader.INSTANCE.getChapters(), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r))),
+        TREE_TYPES(buffer -> buffer.writeMap(TreeTypeLoader.INSTANCE.getEntries(), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r))),
+        DIETS(buffer -> PonyDiets.getInstance().toBuffer(buffer));
+
+        public static final Section[] VALUES = values();
+
+        private final Consumer<PacketByteBuf> writer;
+
+        Section(Consumer<PacketByteBuf> writer) {
+            this.writer = writer;
+        }
+
+        public void write(PacketByteBuf buffer) {
+            writer.accept(buffer);
+        }
     }
 }
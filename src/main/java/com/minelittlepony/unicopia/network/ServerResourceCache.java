@@ -0,0 +1,129 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.*;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.hash.Hashing;
+import com.minelittlepony.unicopia.network.MsgServerResources.Section;
+
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Holds the serialised form of each {@link Section} of the server's resources along with a hash of its contents.
+ * <p>
+ * Payloads are built once when first needed after a change and shared by every player they are sent to.
+ * For each connected player the cache remembers which version of each section they were last given,
+ * so updates only carry the sections that player does not already have.
+ */
+public final class ServerResourceCache {
+    /**
+     * Changing how any section is written must also change this, so that clients discard what they have cached.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    public static final ServerResourceCache INSTANCE = new ServerResourceCache();
+
+    private final long[] hashes = new long[Section.VALUES.length];
+    @Nullable
+    private byte[][] payloads;
+
+    private final Map<UUID, long[]> knownHashes = new HashMap<>();
+
+    static void bootstrap() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> INSTANCE.invalidate());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> INSTANCE.clear());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, manager, success) -> {
+            if (success) {
+                INSTANCE.invalidate();
+                INSTANCE.sendUpdates(server);
+            }
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> INSTANCE.forget(handler.player));
+    }
+
+    public static long hash(byte[] payload) {
+        long hash = Hashing.murmur3_128().newHasher()
+                .putInt(FORMAT_VERSION)
+                .putBytes(payload)
+                .hash().asLong();
+        // zero is reserved for "nothing cached"
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Discards the serialised payloads. They will be rebuilt the next time anything is sent.
+     */
+    public synchronized void invalidate() {
+        payloads = null;
+    }
+
+    /**
+     * Called when a player tells us what they have in their cache.
+     * Replies with the current hashes and the payloads for any sections they are missing.
+     */
+    public synchronized void onCacheState(ServerPlayerEntity player, long[] clientHashes) {
+        long[] known = new long[hashes.length];
+        System.arraycopy(clientHashes, 0, known, 0, Math.min(known.length, clientHashes.length));
+        knownHashes.put(player.getUuid(), known);
+        sendTo(player, known, true);
+    }
+
+    /**
+     * Sends any sections that have changed to the players who have already been given an earlier version.
+     */
+    public synchronized void sendUpdates(MinecraftServer server) {
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            long[] known = knownHashes.get(player.getUuid());
+            if (known != null) {
+                sendTo(player, known, false);
+            }
+        }
+    }
+
+    private void sendTo(ServerPlayerEntity player, long[] known, boolean force) {
+        build();
+        byte[][] outgoing = new byte[hashes.length][];
+        boolean changed = false;
+        for (int i = 0; i < hashes.length; i++) {
+            if (known[i] != hashes[i]) {
+                outgoing[i] = payloads[i];
+                known[i] = hashes[i];
+                changed = true;
+            }
+        }
+        if (changed || force) {
+            Channel.SERVER_RESOURCES.sendToPlayer(new MsgServerResources(hashes.clone(), outgoing), player);
+        }
+    }
+
+    private void build() {
+        if (payloads != null) {
+            return;
+        }
+        byte[][] payloads = new byte[hashes.length][];
+        for (Section section : Section.VALUES) {
+            PacketByteBuf buffer = new PacketByteBuf(Unpooled.buffer());
+            section.write(buffer);
+            byte[] payload = new byte[buffer.readableBytes()];
+            buffer.readBytes(payload);
+            payloads[section.ordinal()] = payload;
+            hashes[section.ordinal()] = hash(payload);
+        }
+        this.payloads = payloads;
+    }
+
+    private synchronized void forget(ServerPlayerEntity player) {
+        knownHashes.remove(player.getUuid());
+    }
+
+    private synchronized void clear() {
+        knownHashes.clear();
+        payloads = null;
+    }
+}
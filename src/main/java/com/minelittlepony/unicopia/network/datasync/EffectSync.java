@@ -151,8 +151,17 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
 
     @SuppressWarnings("unchecked")
     private <T extends Spell> Stream<T> read(@Nullable SpellPredicate<T> type, boolean synchronize, boolean sendUpdate) {
-        if (synchronize && spells.fromNbt(owner.asEntity().getDataTracker().get(param)) && sendUpdate) {
-            write();
+        if (synchronize) {
+            NbtCompound value = owner.asEntity().getDataTracker().get(param);
+            // the tracked value is only replaced when it changes, so there's nothing new to read if it's the one we already have
+            if (value != lastValue) {
+                lastValue = value;
+                if (spells.fromNbt(value) && sendUpdate) {
+                    write();
+                }
+            } else if (sendUpdate) {
+                write();
+            }
         }
 
         if (type == null) {
@@ -172,20 +181,25 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
     }
 
     private void write() {
-        if (spells.isDirty()) {
-            owner.asEntity().getDataTracker().set(param, spells.toNbt());
+        // only the server sends spells, the client just applies what it's given
+        if (!owner.isClient() && spells.isDirty()) {
+            lastValue = spells.toNbt();
+            owner.asEntity().getDataTracker().set(param, lastValue);
         }
     }
 
     @Override
     public void toNBT(NbtCompound compound) {
+        // flush any pending changes to the client first, since serialising a spell consumes its dirty flag
+        write();
         compound.put("spells", spells.toNbt());
     }
 
     @Override
     public void fromNBT(NbtCompound compound) {
         spells.fromNbt(compound.getCompound("spells"));
-        owner.asEntity().getDataTracker().set(param, spells.toNbt());
+        lastValue = spells.toNbt();
+        owner.asEntity().getDataTracker().set(param, lastValue);
     }
 
     public interface UpdateCallback {
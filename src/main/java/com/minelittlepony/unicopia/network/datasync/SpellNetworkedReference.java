@@ -1,6 +1,5 @@
 package com.minelittlepony.unicopia.network.datasync;
 
-import java.util.Objects;
 import java.util.Optional;
 
 import org.jetbrains.annotations.Nullable;
@@ -13,8 +12,23 @@ import net.minecraft.nbt.NbtCompound;
 public class SpellNetworkedReference<T extends Spell> implements NetworkedReference<T> {
     private Optional<T> currentValue = Optional.empty();
 
+    /**
+     * On the server, the last state written for the current spell.
+     * Re-used until the spell changes so unchanged spells don't have to be serialised again.
+     */
     @Nullable
     private NbtCompound lastValue;
+    @Nullable
+    private T lastWritten;
+
+    /**
+     * Incremented every time the spell's state is re-serialised.
+     */
+    private int sentVersion;
+    /**
+     * On the client, the version of the last state that was applied.
+     */
+    private int receivedVersion;
 
     private final Caster<?> owner;
 
@@ -38,8 +52,8 @@ public class SpellNetworkedReference<T extends Spell> implements NetworkedRefere
     }
 
     private boolean mustUpdate(NbtCompound comp) {
-        if (owner.isClient() && !Objects.equals(lastValue, comp)) {
-            lastValue = comp;
+        if (owner.isClient() && comp.getInt("version") != receivedVersion) {
+            receivedVersion = comp.getInt("version");
             return true;
         }
         return false;
@@ -76,6 +90,7 @@ public class SpellNetworkedReference<T extends Spell> implements NetworkedRefere
         }
 
         if (mustReplace(comp)) {
+            receivedVersion = comp.getInt("version");
             updateReference((T)Spell.readNbt(comp));
             return false;
         }
@@ -96,7 +111,19 @@ public class SpellNetworkedReference<T extends Spell> implements NetworkedRefere
     @Override
     public NbtCompound toNbt() {
         dirty = false;
-        return getReference().map(Spell::writeNbt).orElseGet(NbtCompound::new);
+        T spell = getReference().orElse(null);
+        if (spell == null) {
+            lastValue = null;
+            lastWritten = null;
+            return new NbtCompound();
+        }
+        if (lastValue == null || lastWritten != spell || spell.isDirty()) {
+            spell.clearDirty();
+            lastWritten = spell;
+            lastValue = Spell.writeNbt(spell);
+            lastValue.putInt("version", ++sentVersion);
+        }
+        return lastValue;
     }
 
     @Override
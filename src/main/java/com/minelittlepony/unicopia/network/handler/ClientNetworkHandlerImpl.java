@@ -1,31 +1,25 @@
 package com.minelittlepony.unicopia.network.handler;
 
-import java.util.Map;
-
 import com.minelittlepony.unicopia.InteractionManager;
 import com.minelittlepony.unicopia.Owned;
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.ability.data.Rot;
-import com.minelittlepony.unicopia.ability.data.tree.TreeTypes;
-import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.client.ClientBlockDestructionManager;
+import com.minelittlepony.unicopia.client.ClientResourceCache;
 import com.minelittlepony.unicopia.client.DiscoveryToast;
 import com.minelittlepony.unicopia.client.UnicopiaClient;
 import com.minelittlepony.unicopia.client.gui.TribeSelectionScreen;
-import com.minelittlepony.unicopia.client.gui.spellbook.ClientChapters;
-import com.minelittlepony.unicopia.client.gui.spellbook.SpellbookChapterList.Chapter;
-import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.minelittlepony.unicopia.entity.mob.UEntities;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.network.*;
 import com.minelittlepony.unicopia.network.MsgCasterLookRequest.Reply;
 
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.util.Identifier;
 
 public class ClientNetworkHandlerImpl {
     private final MinecraftClient client = MinecraftClient.getInstance();
@@ -34,6 +28,7 @@ public class ClientNetworkHandlerImpl {
         Channel.SERVER_SELECT_TRIBE.receiver().addPersistentListener(this::handleTribeScreen);
         Channel.SERVER_SPAWN_PROJECTILE.receiver().addPersistentListener(this::handleSpawnProjectile);
         Channel.SERVER_BLOCK_DESTRUCTION.receiver().addPersistentListener(this::handleBlockDestruction);
+        Channel.SERVER_PARTICLE_BURST.receiver().addPersistentListener(this::handleParticleBurst);
         Channel.CANCEL_PLAYER_ABILITY.receiver().addPersistentListener(this::handleCancelAbility);
         Channel.UNLOCK_TRAITS.receiver().addPersistentListener(this::handleUnlockTraits);
         Channel.SERVER_RESOURCES.receiver().addPersistentListener(this::handleServerResources);
@@ -41,6 +36,9 @@ public class ClientNetworkHandlerImpl {
         Channel.SERVER_ZAP_STAGE.receiver().addPersistentListener(this::handleZapStage);
         Channel.SERVER_PLAYER_ANIMATION_CHANGE.receiver().addPersistentListener(this::handlePlayerAnimation);
         Channel.SERVER_REQUEST_PLAYER_LOOK.receiver().addPersistentListener(this::handleCasterLookRequest);
+
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> ClientResourceCache.INSTANCE.onConnect());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> ClientResourceCache.INSTANCE.onDisconnect());
     }
 
     private void handleTribeScreen(PlayerEntity sender, MsgTribeSelect packet) {
@@ -72,12 +70,16 @@ public class ClientNetworkHandlerImpl {
         world.addEntity(entity);
     }
 
+    private void handleParticleBurst(PlayerEntity sender, MsgParticleBurst packet) {
+        if (client.world != null) {
+            packet.spawn(client.world);
+        }
+    }
+
     private void handleBlockDestruction(PlayerEntity sender, MsgBlockDestruction packet) {
         ClientBlockDestructionManager destr = ((ClientBlockDestructionManager.Source)client.worldRenderer).getDestructionManager();
 
-        packet.destructions().forEach((i, d) -> {
-            destr.setBlockDestruction(i, d);
-        });
+        packet.forEach(destr::setBlockDestruction);
     }
 
     private void handleCancelAbility(PlayerEntity sender, MsgCancelPlayerAbility packet) {
@@ -99,12 +101,8 @@ public class ClientNetworkHandlerImpl {
         UnicopiaClient.getInstance().setZapAppleStage(packet.stage(), packet.delta());
     }
 
-    @SuppressWarnings("unchecked")
     private void handleServerResources(PlayerEntity sender, MsgServerResources packet) {
-        SpellTraits.load(packet.traits());
-        ClientChapters.load((Map<Identifier, Chapter>)packet.chapters());
-        TreeTypes.load(packet.treeTypes());
-        PonyDiets.load(packet.diets());
+        ClientResourceCache.INSTANCE.receive(packet);
     }
 
     private void handlePlayerAnimation(PlayerEntity sender, MsgPlayerAnimationChange packet) {
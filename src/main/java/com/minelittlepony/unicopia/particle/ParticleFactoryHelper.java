@@ -25,6 +25,11 @@ public interface ParticleFactoryHelper {
         return type.getParametersFactory().read(type, buf);
     }
 
+    static void writeEffect(PacketByteBuf buf, ParticleEffect effect) {
+        buf.writeInt(Registries.PARTICLE_TYPE.getRawId(effect.getType()));
+        effect.write(buf);
+    }
+
     static Vec3d readVector(StringReader reader) throws CommandSyntaxException {
         return new Vec3d(readDouble(reader), readDouble(reader), readDouble(reader));
     }
@@ -1,9 +1,12 @@
 package com.minelittlepony.unicopia.particle;
 
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgParticleBurst;
 import com.minelittlepony.unicopia.util.shape.*;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
@@ -12,6 +15,7 @@ import net.minecraft.world.World;
  * Utility for spawning particles.
  */
 public interface ParticleUtils {
+    double BURST_RANGE_SQUARED = 32 * 32;
 
     static PointGenerator getShapeFor(Entity entity) {
         final double halfDist = Math.abs(entity.getStandingEyeHeight() / 1.5);
@@ -28,9 +32,27 @@ public interface ParticleUtils {
     }
 
     static void spawnParticles(World world, PointGenerator points, ParticleEffect effect, int count) {
+        if (count > 1 && world instanceof ServerWorld sw && points instanceof Shape shape && ShapeSerializer.canWrite(shape)) {
+            spawnParticleBurst(sw, shape, effect, count);
+            return;
+        }
         points.randomPoints(count, world.random).forEach(point -> spawnParticle(world, effect, point, Vec3d.ZERO));
     }
 
+    /**
+     * Sends the shape to nearby players in a single packet and lets each of them pick out the points.
+     * Players are chosen using the same range vanilla uses for its particle packets.
+     */
+    private static void spawnParticleBurst(ServerWorld world, Shape shape, ParticleEffect effect, int count) {
+        Vec3d center = shape.getLowerBound().add(shape.getUpperBound()).multiply(0.5);
+        MsgParticleBurst packet = new MsgParticleBurst(effect, shape, count, world.random.nextLong());
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (player.squaredDistanceTo(center) < BURST_RANGE_SQUARED) {
+                Channel.SERVER_PARTICLE_BURST.sendToPlayer(packet, player);
+            }
+        }
+    }
+
     static void spawnParticle(World world, ParticleEffect effect, Vec3d pos, Vec3d vel) {
         spawnParticle(world, effect, pos.x, pos.y, pos.z, vel.x, vel.y, vel.z);
     }
@@ -0,0 +1,222 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.base.Suppliers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Caches the terrain inputs to {@link WeatherConditions#getAirflow} for each chunk column of a world.
+ * <p>
+ * Each column records the height of the highest solid block and the kind of surface at the top of it,
+ * taken from the chunk's heightmap. Anything above the surface can then find its distance from the ground
+ * and the material beneath it without walking down through the air. Positions at or below the surface
+ * fall back to checking the world directly.
+ * <p>
+ * Columns are built when first sampled and discarded whenever a block in their chunk changes.
+ */
+public class AirflowField {
+    private static final int MAX_CACHED_COLUMNS = 4096;
+
+    private final World world;
+
+    private final Long2ObjectMap<Column> columns = new Long2ObjectOpenHashMap<>();
+    private final Column emptyColumn;
+
+    private long lastColumnPos = ChunkPos.MARKER;
+    @Nullable
+    private Column lastColumn;
+
+    public static Supplier<AirflowField> create(World world) {
+        return Suppliers.memoize(() -> new AirflowField(world));
+    }
+
+    public static AirflowField of(World world) {
+        return ((AirflowField.Source)world).getAirflowField();
+    }
+
+    private AirflowField(World world) {
+        this.world = world;
+        this.emptyColumn = new Column(world.getBottomY() - 1);
+    }
+
+    public int getCachedColumnCount() {
+        synchronized (columns) {
+            return columns.size();
+        }
+    }
+
+    /**
+     * Gets the distance from the given position down to the first solid block beneath it.
+     * The position is moved to that block.
+     */
+    public int getLocalAltitude(BlockPos.Mutable pos) {
+        int y = pos.getY();
+        int floor = getColumn(pos).floors[index(pos)];
+
+        if (y > floor) {
+            pos.setY(floor);
+            return y - floor;
+        }
+
+        if (!world.isAir(pos)) {
+            return 0;
+        }
+        do {
+            pos.move(Direction.DOWN);
+        } while (world.isAir(pos) && world.isInBuildLimit(pos));
+        return y - pos.getY();
+    }
+
+    /**
+     * Gets the kind of surface at the given position.
+     */
+    public SurfaceMaterial getSurfaceMaterial(BlockPos pos) {
+        Column column = getColumn(pos);
+        int i = index(pos);
+        if (pos.getY() == column.floors[i]) {
+            return column.materials[i];
+        }
+        return SurfaceMaterial.of(world.getBlockState(pos));
+    }
+
+    public void invalidate(BlockPos pos) {
+        long key = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()));
+        synchronized (columns) {
+            if (columns.remove(key) != null && lastColumnPos == key) {
+                lastColumnPos = ChunkPos.MARKER;
+                lastColumn = null;
+            }
+        }
+    }
+
+    private Column getColumn(BlockPos pos) {
+        int x = ChunkSectionPos.getSectionCoord(pos.getX());
+        int z = ChunkSectionPos.getSectionCoord(pos.getZ());
+        long key = ChunkPos.toLong(x, z);
+
+        synchronized (columns) {
+            if (key == lastColumnPos && lastColumn != null) {
+                return lastColumn;
+            }
+
+            Column column = columns.get(key);
+            if (column == null) {
+                if (!(world.getChunk(x, z, ChunkStatus.FULL, false) instanceof WorldChunk chunk)) {
+                    return emptyColumn;
+                }
+                if (columns.size() >= MAX_CACHED_COLUMNS) {
+                    columns.clear();
+                }
+                column = new Column(chunk);
+                columns.put(key, column);
+            }
+
+            lastColumnPos = key;
+            lastColumn = column;
+            return column;
+        }
+    }
+
+    private static int index(BlockPos pos) {
+        return ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    private static final class Column {
+        private final int[] floors = new int[256];
+        private final SurfaceMaterial[] materials = new SurfaceMaterial[256];
+
+        Column(int floor) {
+            for (int i = 0; i < floors.length; i++) {
+                floors[i] = floor;
+                materials[i] = SurfaceMaterial.VOID;
+            }
+        }
+
+        Column(WorldChunk chunk) {
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int i = (z << 4) | x;
+                    floors[i] = chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z);
+                    materials[i] = floors[i] < chunk.getBottomY()
+                            ? SurfaceMaterial.VOID
+                            : SurfaceMaterial.of(chunk.getBlockState(pos.set(x, floors[i], z)));
+                }
+            }
+        }
+    }
+
+    public enum SurfaceMaterial {
+        NONE(0, false),
+        VOID(WeatherConditions.VOID_UPDRAFT, false),
+        SOUL_SAND(WeatherConditions.SOUL_SAND_UPDRAFT, false),
+        FIRE(WeatherConditions.FIRE_UPDRAFT, false),
+        SAND(WeatherConditions.SAND_UPDRAFT, true),
+        ICE(WeatherConditions.ICE_UPDRAFT, true),
+        WATER(1, true);
+
+        private final double temperature;
+        private final boolean heatedBySun;
+
+        SurfaceMaterial(double temperature, boolean heatedBySun) {
+            this.temperature = temperature;
+            this.heatedBySun = heatedBySun;
+        }
+
+        public double getTemperature(float sunIntensity) {
+            return heatedBySun ? temperature * sunIntensity : temperature;
+        }
+
+        public static SurfaceMaterial of(BlockState state) {
+            if (state.isAir()) {
+                return VOID;
+            }
+
+            if (state.isOf(Blocks.SOUL_SAND) || state.isOf(Blocks.SOUL_SOIL)) {
+                return SOUL_SAND;
+            }
+
+            if (state.isOf(Blocks.LAVA) || state.isOf(Blocks.LAVA_CAULDRON)
+                    || state.isIn(BlockTags.FIRE)
+                    || state.isIn(BlockTags.CAMPFIRES)
+                    || state.isOf(Blocks.MAGMA_BLOCK)) {
+                return FIRE;
+            }
+
+            if (state.isIn(BlockTags.SAND)) {
+                return SAND;
+            }
+
+            if (state.isIn(BlockTags.SNOW) || state.isIn(BlockTags.ICE)) {
+                return ICE;
+            }
+
+            if (state.getFluidState().isIn(FluidTags.WATER)) {
+                return WATER;
+            }
+
+            return NONE;
+        }
+    }
+
+    public interface Source {
+        AirflowField getAirflowField();
+    }
+}
@@ -1,6 +1,5 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -10,13 +9,20 @@ import com.minelittlepony.unicopia.network.Channel;
 import com.minelittlepony.unicopia.network.MsgBlockDestruction;
 import com.minelittlepony.unicopia.util.Tickable;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteMaps;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 
 public class BlockDestructionManager implements Tickable {
@@ -26,7 +32,14 @@ public class BlockDestructionManager implements Tickable {
     public static final int UNSET_DAMAGE = -1;
     public static final int MAX_DAMAGE = 10;
 
-    private final WorldOverlay<Destruction> chunks;
+    /**
+     * Damage is stored as a fixed-point byte with this many steps per point of damage.
+     */
+    public static final int QUANTIZATION = 10;
+
+    private final WorldOverlay<Destructions> chunks;
+
+    private int trackedBlocks;
 
     public static Supplier<BlockDestructionManager> create(World world) {
         return Suppliers.memoize(() -> new BlockDestructionManager(world));
@@ -37,17 +50,41 @@ public class BlockDestructionManager implements Tickable {
     }
 
     private BlockDestructionManager(World world) {
-        this.chunks = WorldOverlay.getOverlay(world, ID, w -> new WorldOverlay<>(world, Destruction::new, this::sendUpdates));
+        this.chunks = WorldOverlay.getOverlay(world, ID, w -> new WorldOverlay<>(world, Destructions::new, this::sendUpdates));
     }
 
     public float getBlockDestruction(BlockPos pos) {
-        Destruction destr = chunks.getState(pos);
-        return destr == null ? UNSET_DAMAGE : destr.amount;
+        if (trackedBlocks <= 0) {
+            return UNSET_DAMAGE;
+        }
+        Destructions destr = chunks.getState(pos);
+        return destr == null ? UNSET_DAMAGE : destr.get(pos.asLong());
     }
 
     public void setBlockDestruction(BlockPos pos, float amount) {
-        chunks.getOrCreateState(pos).set(amount);
-        chunks.markDirty();
+        if (amount >= 0 && amount < MAX_DAMAGE) {
+            chunks.getOrCreateState(pos).set(pos.asLong(), amount);
+            chunks.markDirty();
+        } else {
+            clearBlockDestruction(pos);
+        }
+    }
+
+    private void clearBlockDestruction(BlockPos pos) {
+        if (trackedBlocks <= 0) {
+            return;
+        }
+        Destructions destr = chunks.getState(pos);
+        if (destr != null && destr.clear(pos.asLong())) {
+            chunks.markDirty();
+        }
+    }
+
+    /**
+     * The number of blocks that currently have damage applied to them.
+     */
+    public int getTrackedBlockCount() {
+        return trackedBlocks;
     }
 
     public float damageBlock(BlockPos pos, float amount) {
@@ -61,7 +98,7 @@ public class BlockDestructionManager implements Tickable {
 
     public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newstate) {
         if (oldState.getBlock() != newstate.getBlock()) {
-            setBlockDestruction(pos, UNSET_DAMAGE);
+            clearBlockDestruction(pos);
         }
     }
 
@@ -70,65 +107,143 @@ public class BlockDestructionManager implements Tickable {
         chunks.tick();
     }
 
-    private void sendUpdates(Long2ObjectMap<Destruction> destructions, List<ServerPlayerEntity> players) {
-        Long2ObjectOpenHashMap<Float> values = new Long2ObjectOpenHashMap<>();
-
-        destructions.forEach((blockPos, item) -> {
-            if (item.dirty) {
-                item.dirty = false;
-                values.put(blockPos.longValue(), (Float)item.amount);
+    private void sendUpdates(Destructions destructions, List<ServerPlayerEntity> players) {
+        int remaining = destructions.changes.size();
+        LongIterator iter = destructions.changes.iterator();
+
+        while (remaining > 0) {
+            int count = Math.min(remaining, MsgBlockDestruction.MAX_ENTRIES);
+            long[] positions = new long[count];
+            byte[] damage = new byte[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = iter.nextLong();
+                damage[i] = destructions.amounts.get(positions[i]);
             }
-        });
+            remaining -= count;
 
-        MsgBlockDestruction msg = new MsgBlockDestruction(values);
+            MsgBlockDestruction msg = new MsgBlockDestruction(destructions.chunkPos, positions, damage);
+            players.forEach(player -> {
+                Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player);
+            });
+        }
+        destructions.changes.clear();
+    }
 
-        if (msg.toBuffer().writerIndex() > 1048576) {
-            throw new IllegalStateException("Payload may not be larger than 1048576 bytes. Here's what we were trying to send: ["
-                    + values.size() + "]\n"
-                    + Arrays.toString(values.values().stream().mapToDouble(Float::doubleValue).toArray()));
+    /**
+     * Damage values for all the blocks in a single chunk, keyed by their packed block position.
+     */
+    private class Destructions implements WorldOverlay.State {
+        private final Long2ByteMap amounts = new Long2ByteOpenHashMap();
+        private final Long2ByteMap ages = new Long2ByteOpenHashMap();
+        private final LongSet changes = new LongOpenHashSet();
+
+        private final long chunkPos;
+
+        Destructions(long chunkPos) {
+            this.chunkPos = chunkPos;
+            amounts.defaultReturnValue((byte)UNSET_DAMAGE);
         }
 
-        players.forEach(player -> {
-            if (player instanceof ServerPlayerEntity) {
-                Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player);
-            }
-        });
-    }
+        private void markChanged(long pos) {
+            changes.add(pos);
+            chunks.markChunkDirty(chunkPos);
+        }
 
-    private class Destruction implements WorldOverlay.State {
-        float amount = UNSET_DAMAGE;
-        int age = DESTRUCTION_COOLDOWN;
-        boolean dirty;
+        float get(long pos) {
+            byte amount = amounts.get(pos);
+            return amount < 0 ? UNSET_DAMAGE : amount / (float)QUANTIZATION;
+        }
 
-        @Override
-        public boolean tick() {
-            if (age-- > 0) {
-                return false;
+        void set(long pos, float amount) {
+            if (amounts.put(pos, (byte)Math.round(amount * QUANTIZATION)) < 0) {
+                trackedBlocks++;
             }
+            ages.put(pos, (byte)DESTRUCTION_COOLDOWN);
+            markChanged(pos);
+        }
 
-            if (amount >= 0) {
-                set(amount - 1);
+        boolean clear(long pos) {
+            if (amounts.remove(pos) < 0) {
+                return false;
             }
-            return amount < 0 || age-- <= 0;
+            trackedBlocks--;
+            ages.remove(pos);
+            markChanged(pos);
+            return true;
         }
 
-        void set(float amount) {
-            this.age = DESTRUCTION_COOLDOWN;
-            this.amount = amount >= 0 && amount < MAX_DAMAGE ? amount : UNSET_DAMAGE;
-            this.dirty = true;
+        @Override
+        public boolean tick() {
+            ObjectIterator<Long2ByteMap.Entry> iter = Long2ByteMaps.fastIterator(ages);
+            while (iter.hasNext()) {
+                Long2ByteMap.Entry entry = iter.next();
+                int age = entry.getByteValue() - 1;
+                if (age > 0) {
+                    entry.setValue((byte)age);
+                    continue;
+                }
+
+                long pos = entry.getLongKey();
+                int amount = amounts.get(pos) - QUANTIZATION;
+                markChanged(pos);
+                if (amount < 0) {
+                    iter.remove();
+                    amounts.remove(pos);
+                    trackedBlocks--;
+                } else {
+                    entry.setValue((byte)DESTRUCTION_COOLDOWN);
+                    amounts.put(pos, (byte)amount);
+                }
+            }
+            return amounts.isEmpty();
         }
 
         @Override
         public void toNBT(NbtCompound compound) {
-            compound.putFloat("destruction", amount);
-            compound.putInt("age", age);
+            long[] positions = new long[amounts.size()];
+            byte[] damage = new byte[positions.length];
+            byte[] age = new byte[positions.length];
+            int i = 0;
+            for (Long2ByteMap.Entry entry : Long2ByteMaps.fastIterable(amounts)) {
+                positions[i] = entry.getLongKey();
+                damage[i] = entry.getByteValue();
+                age[i] = ages.get(positions[i]);
+                i++;
+            }
+            compound.putLongArray("positions", positions);
+            compound.putByteArray("destruction", damage);
+            compound.putByteArray("age", age);
         }
 
         @Override
         public void fromNBT(NbtCompound compound) {
-            amount = compound.getFloat("destruction");
-            age = compound.getInt("age");
-            dirty = true;
+            if (compound.contains("states", NbtElement.COMPOUND_TYPE)) {
+                NbtCompound states = compound.getCompound("states");
+                states.getKeys().forEach(id -> {
+                    NbtCompound state = states.getCompound(id);
+                    float amount = state.getFloat("destruction");
+                    if (amount >= 0 && amount < MAX_DAMAGE) {
+                        load(Long.parseLong(id), (byte)Math.round(amount * QUANTIZATION), (byte)MathHelper.clamp(state.getInt("age"), 0, DESTRUCTION_COOLDOWN));
+                    }
+                });
+                return;
+            }
+
+            long[] positions = compound.getLongArray("positions");
+            byte[] damage = compound.getByteArray("destruction");
+            byte[] age = compound.getByteArray("age");
+            for (int i = 0; i < positions.length && i < damage.length && i < age.length; i++) {
+                if (damage[i] >= 0) {
+                    load(positions[i], damage[i], age[i]);
+                }
+            }
+        }
+
+        private void load(long pos, byte amount, byte age) {
+            if (amounts.put(pos, amount) < 0) {
+                trackedBlocks++;
+            }
+            ages.put(pos, age);
         }
     }
 
@@ -0,0 +1,199 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.util.Tickable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.AbstractFireBlock;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldEvents;
+import net.minecraft.world.event.GameEvent;
+
+/**
+ * Collects block changes made by area effects over the course of a tick and applies them all together
+ * at the end of it, one chunk section at a time.
+ * <p>
+ * Neighbour and shape updates are held back until every change in the batch has been made, and are then only sent
+ * to blocks on the outside of the changed area, so blocks in the middle of an edit don't react to a half-finished one.
+ * Changes to the same section land on the same tick and go out to clients as one multi-block update.
+ * <p>
+ * At most {@link #MAX_EDITS_PER_TICK} changes are made each tick. Anything past that is carried over to the next.
+ * Queuing a change for a position that already has one waiting replaces it.
+ * <p>
+ * Each change remembers the state the block was in when it was queued, and is dropped if the block
+ * has been changed by something else by the time it comes to be applied.
+ */
+public class BlockEditQueue implements Tickable {
+    public static final int MAX_EDITS_PER_TICK = 4096;
+
+    private final ServerWorld world;
+
+    private final Long2ObjectLinkedOpenHashMap<Long2ObjectLinkedOpenHashMap<Edit>> sections = new Long2ObjectLinkedOpenHashMap<>();
+    private int pendingEdits;
+
+    public static BlockEditQueue of(ServerWorld world) {
+        return ((Source)world).getBlockEditQueue();
+    }
+
+    /**
+     * Changes the block at a position, going through the world's edit queue when on the server.
+     */
+    public static void setBlockState(World world, BlockPos pos, BlockState state, int flags) {
+        if (world instanceof ServerWorld sw) {
+            of(sw).setBlockState(pos, state, flags);
+        } else {
+            world.setBlockState(pos, state, flags);
+        }
+    }
+
+    public BlockEditQueue(ServerWorld world) {
+        this.world = world;
+    }
+
+    public void setBlockState(BlockPos pos, BlockState state) {
+        setBlockState(pos, state, Block.NOTIFY_ALL);
+    }
+
+    public void setBlockState(BlockPos pos, BlockState state, int flags) {
+        enqueue(pos, new Edit(world.getBlockState(pos), state, flags, false, false));
+    }
+
+    /**
+     * Queues a block to be broken, playing its break effect and optionally dropping its items.
+     */
+    public void breakBlock(BlockPos pos, boolean drop) {
+        enqueue(pos, new Edit(world.getBlockState(pos), null, Block.NOTIFY_ALL, true, drop));
+    }
+
+    /**
+     * The number of changes waiting to be made.
+     */
+    public int getPendingEdits() {
+        return pendingEdits;
+    }
+
+    private void enqueue(BlockPos pos, Edit edit) {
+        if (sections.computeIfAbsent(ChunkSectionPos.toLong(pos), k -> new Long2ObjectLinkedOpenHashMap<>()).put(pos.asLong(), edit) == null) {
+            pendingEdits++;
+        }
+    }
+
+    @Override
+    public void tick() {
+        if (sections.isEmpty()) {
+            return;
+        }
+
+        int budget = MAX_EDITS_PER_TICK;
+        List<Change> changes = new ArrayList<>();
+        LongSet changed = new LongOpenHashSet();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        ObjectIterator<Long2ObjectLinkedOpenHashMap.Entry<Long2ObjectLinkedOpenHashMap<Edit>>> sectionIter = sections.long2ObjectEntrySet().fastIterator();
+        while (budget > 0 && sectionIter.hasNext()) {
+            Long2ObjectLinkedOpenHashMap<Edit> section = sectionIter.next().getValue();
+            ObjectIterator<Long2ObjectLinkedOpenHashMap.Entry<Edit>> editIter = section.long2ObjectEntrySet().fastIterator();
+            while (budget > 0 && editIter.hasNext()) {
+                var entry = editIter.next();
+                editIter.remove();
+                pendingEdits--;
+                budget--;
+                pos.set(entry.getLongKey());
+                Change change = apply(pos, entry.getValue());
+                if (change != null) {
+                    changes.add(change);
+                    changed.add(change.pos());
+                }
+            }
+            if (section.isEmpty()) {
+                sectionIter.remove();
+            }
+        }
+
+        for (Change change : changes) {
+            pos.set(change.pos());
+            if (!isOnBoundary(pos, changed)) {
+                continue;
+            }
+            if ((change.flags() & Block.NOTIFY_NEIGHBORS) != 0) {
+                world.updateNeighbors(pos, change.oldState().getBlock());
+                if (change.newState().hasComparatorOutput()) {
+                    world.updateComparators(pos, change.newState().getBlock());
+                }
+            }
+            if ((change.flags() & Block.FORCE_STATE) == 0) {
+                int shapeFlags = change.flags() & ~(Block.NOTIFY_NEIGHBORS | Block.SKIP_DROPS);
+                change.oldState().prepare(world, pos, shapeFlags);
+                change.newState().updateNeighbors(world, pos, shapeFlags);
+                change.newState().prepare(world, pos, shapeFlags);
+            }
+        }
+    }
+
+    @Nullable
+    private Change apply(BlockPos pos, Edit edit) {
+        if (!world.isChunkLoaded(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()))) {
+            return null;
+        }
+
+        BlockState oldState = world.getBlockState(pos);
+        if (oldState != edit.expectedState()) {
+            return null;
+        }
+        BlockState newState = edit.state();
+
+        if (edit.breaking()) {
+            if (oldState.isAir()) {
+                return null;
+            }
+            newState = world.getFluidState(pos).getBlockState();
+            if (!(oldState.getBlock() instanceof AbstractFireBlock)) {
+                world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(oldState));
+            }
+            if (edit.drop()) {
+                BlockEntity blockEntity = oldState.hasBlockEntity() ? world.getBlockEntity(pos) : null;
+                Block.dropStacks(oldState, world, pos, blockEntity, null, ItemStack.EMPTY);
+            }
+        }
+
+        if (!world.setBlockState(pos, newState, (edit.flags() & ~Block.NOTIFY_NEIGHBORS) | Block.FORCE_STATE)) {
+            return null;
+        }
+        if (edit.breaking()) {
+            world.emitGameEvent(GameEvent.BLOCK_DESTROY, pos, GameEvent.Emitter.of(null, oldState));
+        }
+        return new Change(pos.asLong(), oldState, newState, edit.flags());
+    }
+
+    private static boolean isOnBoundary(BlockPos pos, LongSet changed) {
+        for (Direction direction : Direction.values()) {
+            if (!changed.contains(BlockPos.offset(pos.asLong(), direction))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Edit(BlockState expectedState, @Nullable BlockState state, int flags, boolean breaking, boolean drop) {}
+
+    private record Change(long pos, BlockState oldState, BlockState newState, int flags) {}
+
+    public interface Source {
+        BlockEditQueue getBlockEditQueue();
+    }
+}
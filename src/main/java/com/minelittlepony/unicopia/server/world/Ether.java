@@ -4,6 +4,7 @@ import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -13,13 +14,39 @@ import com.minelittlepony.unicopia.ability.magic.spell.Spell;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.entity.EntityReference;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.nbt.*;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
 public class Ether extends PersistentState {
     private static final Identifier ID = Unicopia.id("ether");
+    /**
+     * The version of the layout written by {@link #writeNbt}.
+     * Saves without a version use the original nested layout and are converted when they're next saved.
+     */
+    static final int SCHEMA_VERSION = 1;
+
+    /**
+     * Extra distance added to an entry's radius when deciding which chunks it covers, to allow for casters that move between updates.
+     */
+    private static final double BOUNDS_MARGIN = 2;
+    /**
+     * Entries that would span more than this many chunks along either axis are checked for every position instead.
+     */
+    private static final int MAX_BUCKETED_CHUNKS = 8;
+
+    private static final int REMOVED = 1;
+    private static final int TAKEN = 2;
+    private static final int HAS_SPELL_ID = 4;
 
     public static Ether get(World world) {
         return WorldOverlay.getPersistableStorage(world, ID, Ether::new, Ether::new);
@@ -29,15 +56,49 @@ public class Ether extends PersistentState {
 
     private final Object locker = new Object();
 
+    private volatile Map<Identifier, Index> indices = Map.of();
+
     private final World world;
 
     Ether(World world, NbtCompound compound) {
         this.world = world;
-        this.endpoints = NbtSerialisable.readMap(compound.getCompound("endpoints"), Identifier::tryParse, typeNbt -> {
-            return NbtSerialisable.readMap((NbtCompound)typeNbt, UUID::fromString, entityNbt -> {
-                return NbtSerialisable.readMap((NbtCompound)entityNbt, UUID::fromString, Entry::new);
+        if (compound.getInt("version") < SCHEMA_VERSION) {
+            this.endpoints = NbtSerialisable.readMap(compound.getCompound("endpoints"), Identifier::tryParse, typeNbt -> {
+                return NbtSerialisable.readMap((NbtCompound)typeNbt, UUID::fromString, entityNbt -> {
+                    return NbtSerialisable.readMap((NbtCompound)entityNbt, UUID::fromString, Entry::new);
+                });
             });
-        });
+        } else {
+            this.endpoints = new HashMap<>();
+            NbtList palette = compound.getList("types", NbtElement.STRING_TYPE);
+            int[] types = compound.getIntArray("type");
+            long[] ids = compound.getLongArray("ids");
+            byte[] flags = compound.getByteArray("flags");
+            int[] angles = compound.getIntArray("angles");
+            NbtList references = compound.getList("references", NbtElement.COMPOUND_TYPE);
+
+            Identifier[] typeIds = new Identifier[palette.size()];
+            for (int i = 0; i < typeIds.length; i++) {
+                typeIds[i] = Identifier.tryParse(palette.getString(i));
+            }
+
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] < 0 || types[i] >= typeIds.length || typeIds[types[i]] == null) {
+                    continue;
+                }
+                UUID entityId = new UUID(ids[i * 4], ids[i * 4 + 1]);
+                UUID spellId = new UUID(ids[i * 4 + 2], ids[i * 4 + 3]);
+                endpoints
+                    .computeIfAbsent(typeIds[types[i]], typeId -> new HashMap<>())
+                    .computeIfAbsent(entityId, id -> new HashMap<>())
+                    .put(spellId, new Entry<>(references.getCompound(i), spellId, flags[i],
+                            Float.intBitsToFloat(angles[i * 3]),
+                            Float.intBitsToFloat(angles[i * 3 + 1]),
+                            Float.intBitsToFloat(angles[i * 3 + 2])
+                    ));
+            }
+        }
+        rebuildIndices();
     }
 
     Ether(World world) {
@@ -47,6 +108,63 @@ public class Ether extends PersistentState {
 
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
+        synchronized (locker) {
+            pruneNodes();
+
+            int count = 0;
+            for (var entities : endpoints.values()) {
+                for (var spells : entities.values()) {
+                    count += spells.size();
+                }
+            }
+
+            NbtList palette = new NbtList();
+            int[] types = new int[count];
+            long[] ids = new long[count * 4];
+            byte[] flags = new byte[count];
+            int[] angles = new int[count * 3];
+            NbtList references = new NbtList();
+
+            int i = 0;
+            for (var type : endpoints.entrySet()) {
+                int typeIndex = palette.size();
+                palette.add(NbtString.of(type.getKey().toString()));
+                for (var entities : type.getValue().entrySet()) {
+                    for (var spells : entities.getValue().entrySet()) {
+                        Entry<?> entry = spells.getValue();
+                        types[i] = typeIndex;
+                        ids[i * 4] = entities.getKey().getMostSignificantBits();
+                        ids[i * 4 + 1] = entities.getKey().getLeastSignificantBits();
+                        ids[i * 4 + 2] = spells.getKey().getMostSignificantBits();
+                        ids[i * 4 + 3] = spells.getKey().getLeastSignificantBits();
+                        flags[i] = (byte)((entry.removed ? REMOVED : 0) | (entry.taken ? TAKEN : 0) | (entry.spellId != null ? HAS_SPELL_ID : 0));
+                        angles[i * 3] = Float.floatToIntBits(entry.pitch);
+                        angles[i * 3 + 1] = Float.floatToIntBits(entry.yaw);
+                        angles[i * 3 + 2] = Float.floatToIntBits(entry.radius);
+                        NbtCompound reference = new NbtCompound();
+                        entry.entity.toNBT(reference);
+                        references.add(reference);
+                        i++;
+                    }
+                }
+            }
+
+            compound.putInt("version", SCHEMA_VERSION);
+            compound.put("types", palette);
+            compound.putIntArray("type", types);
+            compound.putLongArray("ids", ids);
+            compound.putByteArray("flags", flags);
+            compound.putIntArray("angles", angles);
+            compound.put("references", references);
+            return compound;
+        }
+    }
+
+    /**
+     * Writes this ether in the original nested layout, with every type, entity, and spell keyed by strings.
+     * Only used to compare against the current layout.
+     */
+    NbtCompound writeLegacyNbt(NbtCompound compound) {
         synchronized (locker) {
             pruneNodes();
             compound.put("endpoints", NbtSerialisable.writeMap(endpoints, Identifier::toString, entities -> {
@@ -61,11 +179,13 @@ public class Ether extends PersistentState {
     @SuppressWarnings("unchecked")
     public <T extends Spell> Entry<T> getOrCreate(T spell, Caster<?> caster) {
         synchronized (locker) {
+            boolean[] changed = {false};
             Entry<T> entry = (Entry<T>)endpoints
                     .computeIfAbsent(spell.getType().getId(), typeId -> new HashMap<>())
                     .computeIfAbsent(caster.asEntity().getUuid(), entityId -> new HashMap<>())
                     .computeIfAbsent(spell.getUuid(), spellid -> {
                         markDirty();
+                        changed[0] = true;
                         return new Entry<>(spell, caster);
                     });
             if (entry.removed) {
@@ -76,18 +196,52 @@ public class Ether extends PersistentState {
                 entry.spell = new WeakReference<>(spell);
                 markDirty();
             }
+            Bounds bounds = entry.bounds;
+            if (changed[0]) {
+                entry.updateBounds();
+                updateIndex(spell.getType().getId(), index -> index.add(spell.getUuid(), entry));
+            } else if (entry.updateBounds()) {
+                updateIndex(spell.getType().getId(), index -> index.move(entry, bounds));
+            }
             return entry;
         }
     }
 
-    public <T extends Spell> void remove(SpellType<T> spellType, UUID entityId) {
+    /**
+     * Gets or creates the entry for a spell and sets its radius, making sure the spell's whole area of effect
+     * is indexed before the entry is returned.
+     */
+    public <T extends Spell> Entry<T> getOrCreate(T spell, Caster<?> caster, float radius) {
         synchronized (locker) {
-            endpoints.computeIfPresent(spellType.getId(), (typeId, entries) -> {
-                if (entries.remove(entityId) != null) {
-                    markDirty();
+            Entry<T> entry = getOrCreate(spell, caster);
+            if (entry.radius != radius) {
+                Bounds bounds = entry.bounds;
+                entry.radius = radius;
+                if (entry.updateBounds()) {
+                    updateIndex(spell.getType().getId(), index -> index.move(entry, bounds));
                 }
-                return entries.isEmpty() ? null : entries;
-            });
+            }
+            return entry;
+        }
+    }
+
+    public <T extends Spell> void remove(SpellType<T> spellType, UUID entityId) {
+        synchronized (locker) {
+            var entities = endpoints.get(spellType.getId());
+            if (entities == null) {
+                return;
+            }
+            var removed = entities.remove(entityId);
+            if (entities.isEmpty()) {
+                endpoints.remove(spellType.getId());
+            }
+            if (removed == null) {
+                return;
+            }
+            markDirty();
+            if (!removed.isEmpty()) {
+                updateIndex(spellType.getId(), index -> index.remove(removed));
+            }
         }
     }
 
@@ -117,13 +271,8 @@ public class Ether extends PersistentState {
         if (spellId == null) {
             return null;
         }
-        synchronized (locker) {
-            Entry<?> entry = endpoints
-                    .getOrDefault(spell.getId(), Map.of())
-                    .getOrDefault(entityId, Map.of())
-                    .get(spellId);
-            return entry == null || entry.isDead() ? null : (Entry<T>)entry;
-        }
+        Entry<?> entry = indices.getOrDefault(spell.getId(), Index.EMPTY).spells().get(spellId);
+        return entry == null || !entry.entity.referenceEquals(entityId) || entry.isDead() ? null : (Entry<T>)entry;
     }
 
     public <T extends Spell> boolean anyMatch(SpellType<T> spellType, BiPredicate<T, Caster<?>> condition) {
@@ -134,15 +283,40 @@ public class Ether extends PersistentState {
         });
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Checks all the spells of a type whose area of effect could include the given position.
+     */
+    public <T extends Spell> boolean anyMatch(SpellType<T> spellType, Vec3d pos, BiPredicate<T, Caster<?>> condition) {
+        return anyMatch(spellType, ChunkPos.toLong(MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.z) >> 4), entry -> {
+            var spell = entry.getSpell();
+            var caster = entry.getCaster();
+            return spell != null && caster != null && condition.test(spell, caster);
+        });
+    }
+
+    /**
+     * Checks all the spells of a type whose area of effect could include the given position.
+     */
+    public <T extends Spell> boolean anyMatch(SpellType<T> spellType, BlockPos pos, Predicate<Entry<T>> condition) {
+        return anyMatch(spellType, ChunkPos.toLong(pos), condition);
+    }
+
+    private <T extends Spell> boolean anyMatch(SpellType<T> spellType, long chunkPos, Predicate<Entry<T>> condition) {
+        Index index = indices.getOrDefault(spellType.getId(), Index.EMPTY);
+        return anyMatch(index.chunks().getOrDefault(chunkPos, List.of()), condition)
+            || anyMatch(index.unbounded(), condition);
+    }
+
     public <T extends Spell> boolean anyMatch(SpellType<T> spellType, Predicate<Entry<T>> condition) {
-        synchronized (locker) {
-            for (var entries : endpoints.getOrDefault(spellType.getId(), Map.of()).values()) {
-                for (var entry : entries.values()) {
-                    if (!entry.isDead() && condition.test((Entry<T>)entry)) {
-                        return true;
-                    }
-                }
+        return anyMatch(indices.getOrDefault(spellType.getId(), Index.EMPTY).entries(), condition);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Spell> boolean anyMatch(List<Entry<?>> entries, Predicate<Entry<T>> condition) {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry<?> entry = entries.get(i);
+            if (!entry.isDead() && condition.test((Entry<T>)entry)) {
+                return true;
             }
         }
         return false;
@@ -156,6 +330,143 @@ public class Ether extends PersistentState {
             });
             return entities.isEmpty();
         });
+        rebuildIndices();
+    }
+
+    private void rebuildIndices() {
+        Map<Identifier, Index> indices = new HashMap<>();
+        endpoints.forEach((typeId, entities) -> indices.put(typeId, Index.of(entities)));
+        this.indices = indices;
+    }
+
+    private void updateIndex(Identifier typeId, UnaryOperator<Index> update) {
+        Map<Identifier, Index> indices = new HashMap<>(this.indices);
+        Index index = update.apply(indices.getOrDefault(typeId, Index.EMPTY));
+        if (index.entries().isEmpty()) {
+            indices.remove(typeId);
+        } else {
+            indices.put(typeId, index);
+        }
+        this.indices = indices;
+    }
+
+    /**
+     * The range of chunks an entry's area of effect overlaps, inclusive.
+     */
+    private record Bounds(int minX, int minZ, int maxX, int maxZ) {
+        boolean matches(int minX, int minZ, int maxX, int maxZ) {
+            return this.minX == minX && this.minZ == minZ && this.maxX == maxX && this.maxZ == maxZ;
+        }
+    }
+
+    /**
+     * An immutable snapshot of all the endpoints for a single spell type.
+     * Readers use the most recent snapshot without locking, while writers replace it whenever an entry
+     * is added, removed, or moves to a different set of chunks. A replacement shares every list it doesn't
+     * change with the snapshot before it, so only the buckets of the chunks an entry enters or leaves are copied.
+     *
+     * @param entries   every entry of this type
+     * @param spells    entries by their spell id
+     * @param chunks    entries by each of the chunks their area of effect overlaps
+     * @param unbounded entries with no known position, or whose area of effect is too large to bucket
+     */
+    private record Index(
+            List<Entry<?>> entries,
+            Map<UUID, Entry<?>> spells,
+            Long2ObjectMap<List<Entry<?>>> chunks,
+            List<Entry<?>> unbounded) {
+        static final Index EMPTY = new Index(List.of(), Map.of(), Long2ObjectMaps.emptyMap(), List.of());
+
+        static Index of(Map<UUID, Map<UUID, Entry<?>>> entities) {
+            List<Entry<?>> entries = new ArrayList<>();
+            Map<UUID, Entry<?>> spells = new HashMap<>();
+            Long2ObjectMap<List<Entry<?>>> chunks = new Long2ObjectOpenHashMap<>();
+            List<Entry<?>> unbounded = new ArrayList<>();
+
+            entities.values().forEach(entityEntries -> entityEntries.forEach((spellId, entry) -> {
+                entries.add(entry);
+                spells.put(spellId, entry);
+                entry.updateBounds();
+                if (entry.bounds == null) {
+                    unbounded.add(entry);
+                    return;
+                }
+                for (int x = entry.bounds.minX(); x <= entry.bounds.maxX(); x++) {
+                    for (int z = entry.bounds.minZ(); z <= entry.bounds.maxZ(); z++) {
+                        chunks.computeIfAbsent(ChunkPos.toLong(x, z), i -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }));
+
+            return new Index(entries, spells, chunks, unbounded);
+        }
+
+        Index add(UUID spellId, Entry<?> entry) {
+            Map<UUID, Entry<?>> spells = new HashMap<>(this.spells);
+            spells.put(spellId, entry);
+            Long2ObjectMap<List<Entry<?>>> chunks = new Long2ObjectOpenHashMap<>(this.chunks);
+            List<Entry<?>> unbounded = bucket(chunks, this.unbounded, entry, entry.bounds, true);
+            return new Index(with(entries, entry), spells, chunks, unbounded);
+        }
+
+        Index move(Entry<?> entry, @Nullable Bounds from) {
+            Long2ObjectMap<List<Entry<?>>> chunks = new Long2ObjectOpenHashMap<>(this.chunks);
+            List<Entry<?>> unbounded = bucket(chunks, this.unbounded, entry, from, false);
+            unbounded = bucket(chunks, unbounded, entry, entry.bounds, true);
+            return new Index(entries, spells, chunks, unbounded);
+        }
+
+        Index remove(Map<UUID, Entry<?>> removed) {
+            Set<Entry<?>> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            gone.addAll(removed.values());
+            List<Entry<?>> entries = new ArrayList<>(this.entries);
+            entries.removeIf(gone::contains);
+            Map<UUID, Entry<?>> spells = new HashMap<>(this.spells);
+            spells.values().removeIf(gone::contains);
+            Long2ObjectMap<List<Entry<?>>> chunks = new Long2ObjectOpenHashMap<>(this.chunks);
+            List<Entry<?>> unbounded = this.unbounded;
+            for (Entry<?> entry : removed.values()) {
+                unbounded = bucket(chunks, unbounded, entry, entry.bounds, false);
+            }
+            return new Index(entries, spells, chunks, unbounded);
+        }
+
+        /**
+         * Adds or removes an entry from the buckets covered by the given bounds, replacing each bucket with a modified copy.
+         *
+         * @return The new list of unbounded entries
+         */
+        private static List<Entry<?>> bucket(Long2ObjectMap<List<Entry<?>>> chunks, List<Entry<?>> unbounded, Entry<?> entry, @Nullable Bounds bounds, boolean add) {
+            if (bounds == null) {
+                return add ? with(unbounded, entry) : without(unbounded, entry);
+            }
+            for (int x = bounds.minX(); x <= bounds.maxX(); x++) {
+                for (int z = bounds.minZ(); z <= bounds.maxZ(); z++) {
+                    long key = ChunkPos.toLong(x, z);
+                    List<Entry<?>> bucket = chunks.getOrDefault(key, List.of());
+                    bucket = add ? with(bucket, entry) : without(bucket, entry);
+                    if (bucket.isEmpty()) {
+                        chunks.remove(key);
+                    } else {
+                        chunks.put(key, bucket);
+                    }
+                }
+            }
+            return unbounded;
+        }
+
+        private static List<Entry<?>> with(List<Entry<?>> entries, Entry<?> entry) {
+            List<Entry<?>> copy = new ArrayList<>(entries.size() + 1);
+            copy.addAll(entries);
+            copy.add(entry);
+            return copy;
+        }
+
+        private static List<Entry<?>> without(List<Entry<?>> entries, Entry<?> entry) {
+            List<Entry<?>> copy = new ArrayList<>(entries);
+            copy.removeIf(e -> e == entry);
+            return copy;
+        }
     }
 
     public class Entry<T extends Spell> implements NbtSerialisable {
@@ -172,18 +483,57 @@ public class Ether extends PersistentState {
         public float yaw;
         public float radius;
 
+        @Nullable
+        private Bounds bounds;
+
         private Entry(NbtElement nbt) {
             this.entity = new EntityReference<>();
             this.spell = new WeakReference<>(null);
             this.fromNBT((NbtCompound)nbt);
         }
 
+        private Entry(NbtCompound reference, UUID spellId, byte flags, float pitch, float yaw, float radius) {
+            this.entity = new EntityReference<>(reference);
+            this.spell = new WeakReference<>(null);
+            this.spellId = (flags & HAS_SPELL_ID) != 0 ? spellId : null;
+            this.removed = (flags & REMOVED) != 0;
+            this.taken = (flags & TAKEN) != 0;
+            this.pitch = pitch;
+            this.yaw = yaw;
+            this.radius = radius;
+        }
+
         public Entry(T spell, Caster<?> caster) {
             this.entity = new EntityReference<>(caster.asEntity());
             this.spell = new WeakReference<>(spell);
             spellId = spell.getUuid();
         }
 
+        /**
+         * Recalculates the chunks this entry's area of effect overlaps.
+         *
+         * @return True if they changed since the last time this was called.
+         */
+        boolean updateBounds() {
+            var target = entity.getTarget().orElse(null);
+            if (target == null) {
+                boolean changed = bounds != null;
+                bounds = null;
+                return changed;
+            }
+            double range = radius + BOUNDS_MARGIN;
+            int minX = MathHelper.floor(target.pos().x - range) >> 4;
+            int minZ = MathHelper.floor(target.pos().z - range) >> 4;
+            int maxX = MathHelper.floor(target.pos().x + range) >> 4;
+            int maxZ = MathHelper.floor(target.pos().z + range) >> 4;
+            boolean canBound = maxX - minX < MAX_BUCKETED_CHUNKS && maxZ - minZ < MAX_BUCKETED_CHUNKS;
+            if (canBound ? bounds != null && bounds.matches(minX, minZ, maxX, maxZ) : bounds == null) {
+                return false;
+            }
+            bounds = canBound ? new Bounds(minX, minZ, maxX, maxZ) : null;
+            return true;
+        }
+
         boolean isAlive() {
             return !isDead();
         }
@@ -277,7 +627,7 @@ public class Ether extends PersistentState {
             pitch = compound.getFloat("pitch");
             yaw = compound.getFloat("yaw");
             radius = compound.getFloat("radius");
-            spellId = compound.containsUuid("spellid") ? compound.getUuid("spellId") : null;
+            spellId = compound.containsUuid("spellId") ? compound.getUuid("spellId") : null;
         }
 
         @Override
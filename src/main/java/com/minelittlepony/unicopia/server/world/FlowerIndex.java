@@ -0,0 +1,203 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Keeps track of where the flowers are in each chunk section of a world, so mobs looking for one
+ * only have to check the flowers near them rather than every block in range.
+ * <p>
+ * Sections are scanned the first time something looks in them and kept up to date as blocks change.
+ * Sections that contain no flowers at all are recognised from their palette without reading any blocks.
+ * A chunk's sections are forgotten whenever it loads or unloads, since its blocks can be replaced
+ * wholesale without going through {@link World#setBlockState}.
+ */
+public class FlowerIndex {
+    private static final int MAX_CACHED_SECTIONS = 4096;
+    private static final LongList EMPTY = LongList.of();
+
+    private static volatile int generation;
+
+    private final World world;
+
+    private final Long2ObjectMap<LongList> sections = new Long2ObjectOpenHashMap<>();
+    private int indexedGeneration = generation;
+
+    public static Supplier<FlowerIndex> create(World world) {
+        return Suppliers.memoize(() -> new FlowerIndex(world));
+    }
+
+    public static FlowerIndex of(World world) {
+        return ((FlowerIndex.Source)world).getFlowerIndex();
+    }
+
+    /**
+     * Forgets every indexed section of every world. Called when the flowers tag changes.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    public static void bootstrap() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> of(world).forgetChunk(chunk));
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> of(world).forgetChunk(chunk));
+    }
+
+    private FlowerIndex(World world) {
+        this.world = world;
+    }
+
+    public static boolean isFlower(BlockState state) {
+        return state.isIn(BlockTags.FLOWERS);
+    }
+
+    /**
+     * Finds the closest flower to a position within a cube of the given radius.
+     */
+    public Optional<BlockPos> findNearest(BlockPos center, int range, Predicate<BlockPos> filter) {
+        checkGeneration();
+
+        int minX = ChunkSectionPos.getSectionCoord(center.getX() - range);
+        int minY = ChunkSectionPos.getSectionCoord(center.getY() - range);
+        int minZ = ChunkSectionPos.getSectionCoord(center.getZ() - range);
+        int maxX = ChunkSectionPos.getSectionCoord(center.getX() + range);
+        int maxY = ChunkSectionPos.getSectionCoord(center.getY() + range);
+        int maxZ = ChunkSectionPos.getSectionCoord(center.getZ() + range);
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        long nearest = 0;
+        double nearestDistance = Double.MAX_VALUE;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    LongIterator flowers = getSection(x, y, z).iterator();
+                    while (flowers.hasNext()) {
+                        long flower = flowers.nextLong();
+                        pos.set(flower);
+                        if (Math.abs(pos.getX() - center.getX()) > range
+                                || Math.abs(pos.getY() - center.getY()) > range
+                                || Math.abs(pos.getZ() - center.getZ()) > range) {
+                            continue;
+                        }
+                        double distance = pos.getSquaredDistance(center);
+                        if (distance < nearestDistance && filter.test(pos) && isFlower(world.getBlockState(pos))) {
+                            nearest = flower;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+
+        return nearestDistance == Double.MAX_VALUE ? Optional.empty() : Optional.of(BlockPos.fromLong(nearest));
+    }
+
+    public void onBlockChanged(BlockPos pos, BlockState state) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        LongList flowers = sections.get(ChunkSectionPos.toLong(pos));
+        if (flowers == null) {
+            return;
+        }
+        long packed = pos.asLong();
+        boolean isFlower = isFlower(state);
+        if (isFlower == flowers.contains(packed)) {
+            return;
+        }
+        if (flowers == EMPTY) {
+            flowers = new LongArrayList();
+            sections.put(ChunkSectionPos.toLong(pos), flowers);
+        }
+        if (isFlower) {
+            flowers.add(packed);
+        } else {
+            flowers.rem(packed);
+        }
+    }
+
+    /**
+     * Drops the indexed sections of a chunk so they're scanned again the next time they're needed.
+     */
+    public void forgetChunk(WorldChunk chunk) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        int x = chunk.getPos().x;
+        int z = chunk.getPos().z;
+        for (int y = chunk.getBottomSectionCoord(); y < chunk.getTopSectionCoord(); y++) {
+            sections.remove(ChunkSectionPos.asLong(x, y, z));
+        }
+    }
+
+    private void checkGeneration() {
+        if (indexedGeneration != generation) {
+            indexedGeneration = generation;
+            sections.clear();
+        }
+    }
+
+    private LongList getSection(int x, int y, int z) {
+        long key = ChunkSectionPos.asLong(x, y, z);
+        LongList flowers = sections.get(key);
+        if (flowers != null) {
+            return flowers;
+        }
+
+        if (!(world.getChunk(x, z, ChunkStatus.FULL, false) instanceof WorldChunk chunk)) {
+            return EMPTY;
+        }
+        int index = chunk.sectionCoordToIndex(y);
+        if (index < 0 || index >= chunk.getSectionArray().length) {
+            return EMPTY;
+        }
+
+        if (sections.size() >= MAX_CACHED_SECTIONS) {
+            sections.clear();
+        }
+
+        flowers = scan(chunk.getSectionArray()[index], ChunkSectionPos.from(x, y, z));
+        sections.put(key, flowers);
+        return flowers;
+    }
+
+    private static LongList scan(ChunkSection section, ChunkSectionPos sectionPos) {
+        if (section.isEmpty() || !section.hasAny(FlowerIndex::isFlower)) {
+            return EMPTY;
+        }
+        LongList flowers = new LongArrayList();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (isFlower(section.getBlockState(x, y, z))) {
+                        flowers.add(BlockPos.asLong(sectionPos.getMinX() + x, sectionPos.getMinY() + y, sectionPos.getMinZ() + z));
+                    }
+                }
+            }
+        }
+        return flowers;
+    }
+
+    public interface Source {
+        FlowerIndex getFlowerIndex();
+    }
+}
@@ -1,35 +1,47 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 
 import com.minelittlepony.unicopia.Unicopia;
-import com.minelittlepony.unicopia.entity.DynamicLightSource;
 
-import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
+/**
+ * Tracks the positions of all dynamic light sources in a world.
+ * <p>
+ * Light levels are indexed by chunk section so the light engine can look up
+ * a single block or a whole chunk without visiting every registered source.
+ */
 public class LightSources extends PersistentState {
     private static final Identifier ID = Unicopia.id("light_sources");
 
-    private final Set<UUID> lightSourceIds = new HashSet<>();
-    private final AbstractObject2IntMap<UUID> lightSourceClientIds = new Object2IntOpenHashMap<>();
+    private final Long2ObjectMap<Long2IntMap> sections = new Long2ObjectOpenHashMap<>();
+
+    private final Object2LongMap<UUID> sourcePositions = new Object2LongOpenHashMap<>();
+    private final Object2IntMap<UUID> sourceLevels = new Object2IntOpenHashMap<>();
+
+    private final Object locker = new Object();
+
     private volatile boolean empty = true;
 
     private final World world;
 
-    private final Function<UUID, Entity> entitySupplier;
-
     public static LightSources get(World world) {
         return WorldOverlay.getPersistableStorage(world, ID, LightSources::new, LightSources::new);
     }
@@ -40,7 +52,6 @@ public class LightSources extends PersistentState {
 
     LightSources(World world) {
         this.world = world;
-        entitySupplier = world instanceof ServerWorld s ? s::getEntity : id -> world.getEntityById(lightSourceClientIds.getInt(id));
     }
 
     @Override
@@ -48,10 +59,21 @@ public class LightSources extends PersistentState {
         return compound;
     }
 
-    public void addLightSource(Entity entity) {
-        synchronized (lightSourceIds) {
-            lightSourceIds.add(entity.getUuid());
-            lightSourceClientIds.put(entity.getUuid(), entity.getId());
+    /**
+     * Moves the light emitted by an entity to a new position, or registers it if it wasn't already tracked.
+     */
+    public void updateLightSource(Entity entity, BlockPos pos, int light) {
+        if (light <= 0) {
+            removeLightSource(entity);
+            return;
+        }
+        synchronized (locker) {
+            UUID id = entity.getUuid();
+            removeLightLevel(id);
+            long blockPos = pos.asLong();
+            sourcePositions.put(id, blockPos);
+            sourceLevels.put(id, light);
+            sections.computeIfAbsent(ChunkSectionPos.fromBlockPos(blockPos), l -> new Long2IntOpenHashMap()).mergeInt(blockPos, light, Integer::sum);
             empty = false;
         }
     }
@@ -60,10 +82,27 @@ public class LightSources extends PersistentState {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.remove(entity.getUuid());
-            lightSourceClientIds.removeInt(entity.getUuid());
-            empty = lightSourceIds.isEmpty();
+        synchronized (locker) {
+            removeLightLevel(entity.getUuid());
+            empty = sourcePositions.isEmpty();
+        }
+    }
+
+    private void removeLightLevel(UUID id) {
+        if (!sourcePositions.containsKey(id)) {
+            return;
+        }
+        long blockPos = sourcePositions.removeLong(id);
+        int light = sourceLevels.removeInt(id);
+        long sectionPos = ChunkSectionPos.fromBlockPos(blockPos);
+        Long2IntMap section = sections.get(sectionPos);
+        if (section != null) {
+            if (section.mergeInt(blockPos, -light, Integer::sum) <= 0) {
+                section.remove(blockPos);
+            }
+            if (section.isEmpty()) {
+                sections.remove(sectionPos);
+            }
         }
     }
 
@@ -71,51 +110,42 @@ public class LightSources extends PersistentState {
         if (empty) {
             return 0;
         }
-        final int[] result = {0};
-        forEachLightSource((pos, level) -> {
-           if (pos.asLong() == blockPos) {
-               result[0] += level;
-           }
-        });
-        return result[0];
+        synchronized (locker) {
+            Long2IntMap section = sections.get(ChunkSectionPos.fromBlockPos(blockPos));
+            return section == null ? 0 : Math.min(15, section.get(blockPos));
+        }
     }
 
     public void forEachLightSource(ChunkPos chunkPos, LightSourceConsumer consumer) {
-        forEachLightSource((pos, level) -> {
-            if (checkPos(chunkPos, pos)) {
-                consumer.accept(pos, level);
+        if (empty) {
+            return;
+        }
+        synchronized (locker) {
+            for (int y = world.getBottomSectionCoord(); y < world.getTopSectionCoord(); y++) {
+                Long2IntMap section = sections.get(ChunkSectionPos.asLong(chunkPos.x, y, chunkPos.z));
+                if (section != null) {
+                    forEachLightSource(section, consumer);
+                }
             }
-        });
+        }
     }
 
     public void forEachLightSource(LightSourceConsumer consumer) {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.removeIf(id -> {
-                Entity entity = entitySupplier.apply(id);
-                if (entity instanceof DynamicLightSource source) {
-                    consumer.accept(entity.getBlockPos(), source.getLightLevel());
-                    return false;
-                }
-                return true;
-            });
-            empty = lightSourceIds.isEmpty();
+        synchronized (locker) {
+            sections.values().forEach(section -> forEachLightSource(section, consumer));
         }
     }
 
-    private boolean checkPos(ChunkPos chunkPos, BlockPos pos) {
-        return world.isInBuildLimit(pos)
-            && checkPos(pos.getX(), chunkPos.getStartX(), chunkPos.getEndX())
-            && checkPos(pos.getZ(), chunkPos.getStartZ(), chunkPos.getEndZ());
-    }
-
-    private boolean checkPos(int p, int min, int max) {
-        return p >= min && p <= max;
+    private void forEachLightSource(Long2IntMap section, LightSourceConsumer consumer) {
+        for (Long2IntMap.Entry entry : Long2IntMaps.fastIterable(section)) {
+            consumer.accept(entry.getLongKey(), Math.min(15, entry.getIntValue()));
+        }
     }
 
     public interface LightSourceConsumer {
-        void accept(BlockPos pos, int light);
+        void accept(long blockPos, int light);
     }
 }
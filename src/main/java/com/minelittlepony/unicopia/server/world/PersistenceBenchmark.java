@@ -0,0 +1,125 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
+import com.minelittlepony.unicopia.util.NbtSerialisable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Compares the size and speed of the binary persistence layouts used by {@link WorldOverlay} and {@link Ether}
+ * against the original string-keyed layouts, and checks that both survive a round trip.
+ * <p>
+ * Enabled with {@code -Dunicopia.debug.benchmarkPersistence=true}
+ */
+public interface PersistenceBenchmark {
+    int CHUNKS = 4096;
+    int ENDPOINTS = 4096;
+    int ITERATIONS = 20;
+
+    static void run(World world) {
+        Random rng = new Random(0);
+
+        WorldOverlay<SampleState> overlay = new WorldOverlay<>(world, pos -> new SampleState(), null);
+        for (int i = 0; i < CHUNKS; i++) {
+            overlay.getOrCreateState(new BlockPos(rng.nextInt(20000) - 10000, 0, rng.nextInt(20000) - 10000)).value = rng.nextLong();
+        }
+        NbtCompound overlayNbt = overlay.writeNbt(new NbtCompound());
+        WorldOverlay<SampleState> overlayCopy = new WorldOverlay<>(world, pos -> new SampleState(), null);
+        overlayCopy.readNbt(overlayNbt);
+        report("world overlay",
+                () -> overlay.writeLegacyNbt(new NbtCompound()),
+                () -> overlay.writeNbt(new NbtCompound()),
+                overlay.writeLegacyNbt(new NbtCompound()).equals(overlayCopy.writeLegacyNbt(new NbtCompound()))
+        );
+
+        Ether ether = new Ether(world, createLegacyEther(rng));
+        NbtCompound etherNbt = ether.writeNbt(new NbtCompound());
+        report("ether",
+                () -> ether.writeLegacyNbt(new NbtCompound()),
+                () -> ether.writeNbt(new NbtCompound()),
+                ether.writeLegacyNbt(new NbtCompound()).equals(new Ether(world, etherNbt).writeLegacyNbt(new NbtCompound()))
+        );
+    }
+
+    private static NbtCompound createLegacyEther(Random rng) {
+        SpellType<?>[] types = { SpellType.PORTAL, SpellType.ARCANE_PROTECTION, SpellType.HYDROPHOBIC };
+        NbtCompound endpoints = new NbtCompound();
+        for (int i = 0; i < ENDPOINTS; i++) {
+            NbtCompound entry = new NbtCompound();
+            entry.putUuid("uuid", new UUID(rng.nextLong(), rng.nextLong()));
+            entry.put("pos", NbtSerialisable.writeVector(new Vec3d(rng.nextDouble() * 1000, rng.nextDouble() * 100, rng.nextDouble() * 1000)));
+            entry.putInt("clientId", rng.nextInt());
+            entry.put("level", new NbtCompound());
+            entry.put("corruption", new NbtCompound());
+            entry.putFloat("pitch", rng.nextFloat());
+            entry.putFloat("yaw", rng.nextFloat());
+            entry.putFloat("radius", rng.nextFloat());
+            UUID spellId = new UUID(rng.nextLong(), rng.nextLong());
+            entry.putUuid("spellId", spellId);
+
+            NbtCompound type = endpoints.getCompound(types[i % types.length].getId().toString());
+            NbtCompound entity = new NbtCompound();
+            entity.put(spellId.toString(), entry);
+            type.put(entry.getUuid("uuid").toString(), entity);
+            endpoints.put(types[i % types.length].getId().toString(), type);
+        }
+        NbtCompound compound = new NbtCompound();
+        compound.put("endpoints", endpoints);
+        return compound;
+    }
+
+    private static void report(String name, Supplier<NbtCompound> legacy, Supplier<NbtCompound> binary, boolean roundTrips) {
+        Unicopia.LOGGER.info("Persistence benchmark for {}: legacy {}, binary {}, round trip {}",
+                name, measure(legacy), measure(binary), roundTrips ? "passed" : "FAILED");
+    }
+
+    private static String measure(Supplier<NbtCompound> writer) {
+        NbtCompound compound = writer.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            compound = writer.get();
+        }
+        long elapsed = (System.nanoTime() - start) / ITERATIONS;
+
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            NbtIo.write(compound, new DataOutputStream(raw));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            NbtIo.writeCompressed(compound, compressed);
+            return String.format("%.3fms/write, %d bytes (%d compressed)", elapsed / 1000000D, raw.size(), compressed.size());
+        } catch (IOException e) {
+            return String.format("%.3fms/write, size unknown (%s)", elapsed / 1000000D, e.getMessage());
+        }
+    }
+
+    class SampleState implements WorldOverlay.State {
+        long value;
+
+        @Override
+        public boolean tick() {
+            return false;
+        }
+
+        @Override
+        public void toNBT(NbtCompound compound) {
+            compound.putLong("value", value);
+        }
+
+        @Override
+        public void fromNBT(NbtCompound compound) {
+            value = compound.getLong("value");
+        }
+    }
+}
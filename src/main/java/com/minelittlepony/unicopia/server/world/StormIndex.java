@@ -0,0 +1,160 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+import com.minelittlepony.unicopia.entity.mob.StormCloudEntity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * Tracks the area rained on by each active storm cloud, bucketed by the chunk columns it covers.
+ * <p>
+ * A storm's footprint is only re-bucketed when its cloud moves into a different block or changes size,
+ * and checking a position only looks at the storms over that position's chunk.
+ */
+class StormIndex {
+    private final Map<UUID, Footprint> storms = new HashMap<>();
+    private final Long2ObjectMap<List<Footprint>> chunks = new Long2ObjectOpenHashMap<>();
+
+    public synchronized void update(StormCloudEntity cloud) {
+        Footprint previous = storms.get(cloud.getUuid());
+        Footprint next = Footprint.of(cloud);
+        if (previous != null) {
+            if (previous.hasSameBounds(next)) {
+                return;
+            }
+            remove(previous);
+        }
+        storms.put(cloud.getUuid(), next);
+        next.forEachChunk((x, z) -> chunks.computeIfAbsent(ChunkPos.toLong(x, z), k -> new ArrayList<>(1)).add(next));
+    }
+
+    public synchronized void remove(StormCloudEntity cloud) {
+        Footprint footprint = storms.get(cloud.getUuid());
+        if (footprint != null) {
+            remove(footprint);
+        }
+    }
+
+    public synchronized boolean contains(BlockPos pos) {
+        List<Footprint> bucket = chunks.get(ChunkPos.toLong(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getZ())
+        ));
+        if (bucket == null) {
+            return false;
+        }
+        for (Footprint footprint : bucket) {
+            if (footprint.contains(pos.getX(), pos.getY(), pos.getZ()) && !footprint.isStale()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any storm rains on part of the given horizontal area at or below the given height.
+     * Every storm overlapping the area is visited at most once.
+     */
+    public synchronized boolean intersects(int minX, int minZ, int maxX, int maxZ, int y) {
+        Set<Footprint> checked = new HashSet<>();
+        for (int x = ChunkSectionPos.getSectionCoord(minX); x <= ChunkSectionPos.getSectionCoord(maxX); x++) {
+            for (int z = ChunkSectionPos.getSectionCoord(minZ); z <= ChunkSectionPos.getSectionCoord(maxZ); z++) {
+                List<Footprint> bucket = chunks.get(ChunkPos.toLong(x, z));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Footprint footprint : bucket) {
+                    if (checked.add(footprint) && footprint.intersects(minX, minZ, maxX, maxZ, y) && !footprint.isStale()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes storms whose clouds have been unloaded, killed, or have since cleared up.
+     */
+    public synchronized void prune() {
+        List<Footprint> stale = storms.values().stream().filter(Footprint::isStale).toList();
+        stale.forEach(this::remove);
+    }
+
+    private void remove(Footprint footprint) {
+        storms.remove(footprint.id(), footprint);
+        footprint.forEachChunk((x, z) -> {
+            long key = ChunkPos.toLong(x, z);
+            List<Footprint> bucket = chunks.get(key);
+            if (bucket != null && bucket.remove(footprint) && bucket.isEmpty()) {
+                chunks.remove(key);
+            }
+        });
+    }
+
+    private record Footprint(
+            UUID id,
+            WeakReference<StormCloudEntity> cloud,
+            int minX, int minZ,
+            int maxX, int maxZ,
+            int maxY) {
+        static Footprint of(StormCloudEntity cloud) {
+            BlockPos pos = cloud.getBlockPos();
+            int radius = cloud.getSizeInBlocks();
+            return new Footprint(
+                    cloud.getUuid(),
+                    new WeakReference<>(cloud),
+                    pos.getX() - radius, pos.getZ() - radius,
+                    pos.getX() + radius, pos.getZ() + radius,
+                    pos.getY() + (int)cloud.getHeight()
+            );
+        }
+
+        boolean hasSameBounds(Footprint other) {
+            return minX == other.minX && minZ == other.minZ
+                && maxX == other.maxX && maxZ == other.maxZ
+                && maxY == other.maxY;
+        }
+
+        boolean contains(int x, int y, int z) {
+            return y <= maxY && x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+
+        boolean intersects(int minX, int minZ, int maxX, int maxZ, int y) {
+            return y <= this.maxY && minX <= this.maxX && maxX >= this.minX && minZ <= this.maxZ && maxZ >= this.minZ;
+        }
+
+        boolean isStale() {
+            StormCloudEntity cloud = this.cloud.get();
+            return cloud == null || cloud.isRemoved() || !cloud.isStormy();
+        }
+
+        void forEachChunk(ChunkConsumer consumer) {
+            for (int x = ChunkSectionPos.getSectionCoord(minX); x <= ChunkSectionPos.getSectionCoord(maxX); x++) {
+                for (int z = ChunkSectionPos.getSectionCoord(minZ); z <= ChunkSectionPos.getSectionCoord(maxZ); z++) {
+                    consumer.accept(x, z);
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private interface ChunkConsumer {
+        void accept(int x, int z);
+    }
+}
@@ -0,0 +1,151 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.util.Tickable;
+
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Runs delayed tasks from a world's tick loop on the exact tick they were scheduled for.
+ * <p>
+ * Tasks are kept in a hashed wheel of buckets, one per tick. Every tick only the bucket for
+ * that tick is visited, and every task due on it is run together.
+ * Tasks may be scheduled from any thread, but always run on the server thread.
+ */
+public class TickScheduler implements Tickable {
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ServerWorld world;
+
+    @SuppressWarnings("unchecked")
+    private final List<Task>[] wheel = new List[WHEEL_SIZE];
+
+    private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+
+    private volatile long currentTick;
+
+    private int pendingTasks;
+    private long lastTickDuration;
+
+    public static TickScheduler of(ServerWorld world) {
+        return ((Source)world).getTickScheduler();
+    }
+
+    public TickScheduler(ServerWorld world) {
+        this.world = world;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Schedules a task to run after the given number of ticks.
+     * Tasks scheduled with a delay of zero run on the next tick.
+     */
+    public Task schedule(Consumer<ServerWorld> action, int ticksLater) {
+        Task task = new Task(action, currentTick + Math.max(1, ticksLater));
+        incoming.add(task);
+        return task;
+    }
+
+    /**
+     * The number of tasks waiting to be run.
+     */
+    public int getPendingTasks() {
+        return pendingTasks + incoming.size();
+    }
+
+    /**
+     * The time, in nanoseconds, it took to run the tasks due on the last tick.
+     */
+    public long getLastTickDuration() {
+        return lastTickDuration;
+    }
+
+    @Override
+    public void tick() {
+        long start = System.nanoTime();
+        long tick = ++currentTick;
+
+        Task task;
+        while ((task = incoming.poll()) != null) {
+            wheel[(int)(Math.max(task.targetTick, tick) & WHEEL_MASK)].add(task);
+            pendingTasks++;
+        }
+
+        List<Task> bucket = wheel[(int)(tick & WHEEL_MASK)];
+        if (!bucket.isEmpty()) {
+            // tasks scheduled while running these go into the incoming queue, so the bucket can't change under us
+            bucket.removeIf(t -> {
+                if (!t.cancelled && t.targetTick > tick) {
+                    return false;
+                }
+                pendingTasks--;
+                t.run(world);
+                return true;
+            });
+        }
+
+        lastTickDuration = System.nanoTime() - start;
+    }
+
+    /**
+     * A handle to a scheduled task that can be used to cancel it before it runs.
+     */
+    public static final class Task {
+        private final Consumer<ServerWorld> action;
+        private final long targetTick;
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        private Task(Consumer<ServerWorld> action, long targetTick) {
+            this.action = action;
+            this.targetTick = targetTick;
+        }
+
+        private void run(ServerWorld world) {
+            if (cancelled) {
+                return;
+            }
+            done = true;
+            try {
+                action.accept(world);
+            } catch (Throwable t) {
+                Unicopia.LOGGER.error("Exception whilst running scheduled task", t);
+            }
+        }
+
+        /**
+         * Stops this task from running if it hasn't already.
+         *
+         * @return True if the task was cancelled, false if it has already run.
+         */
+        public boolean cancel() {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done || cancelled;
+        }
+    }
+
+    public interface Source {
+        TickScheduler getTickScheduler();
+    }
+}
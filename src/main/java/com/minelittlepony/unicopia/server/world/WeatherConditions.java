@@ -1,20 +1,11 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.entity.mob.StormCloudEntity;
 import com.minelittlepony.unicopia.util.MeteorlogicalUtil;
 import com.minelittlepony.unicopia.util.Tickable;
 
-import net.minecraft.block.BlockState;
-import net.minecraft.block.Blocks;
 import net.minecraft.nbt.NbtCompound;
-import net.minecraft.registry.tag.BlockTags;
-import net.minecraft.registry.tag.FluidTags;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.*;
 import net.minecraft.util.math.random.Random;
@@ -25,16 +16,7 @@ import net.minecraft.world.World;
 public class WeatherConditions extends PersistentState implements Tickable {
     public static final Plane HEIGHT_MAP_FIELD = (world, pos) -> world.getTopY(Heightmap.Type.WORLD_SURFACE_WG, pos.getX(), pos.getZ());
     public static final Plane THERMAL_FIELD = (world, pos) -> (float)getUpdraft(pos, world);
-    public static final Plane LOCAL_ALTITUDE_FIELD = (world, pos) -> {
-        if (!world.isAir(pos)) {
-            return 0;
-        }
-        int y = pos.getY();
-        do {
-            pos.move(Direction.DOWN);
-        } while (world.isAir(pos) && world.isInBuildLimit(pos));
-        return y - pos.getY();
-    };
+    public static final Plane LOCAL_ALTITUDE_FIELD = (world, pos) -> AirflowField.of(world).getLocalAltitude(pos);
 
     public static final double FIRE_UPDRAFT = 0.13;
     public static final double SAND_UPDRAFT = 0.03;
@@ -61,7 +43,7 @@ public class WeatherConditions extends PersistentState implements Tickable {
 
     private boolean prevDayState;
 
-    private Map<UUID, Storm> storms = new HashMap<>();
+    private final StormIndex storms = new StormIndex();
 
     private WeatherConditions(World world, NbtCompound compound) {
         this(world);
@@ -76,17 +58,29 @@ public class WeatherConditions extends PersistentState implements Tickable {
         this.world = world;
     }
 
-    public void addStorm(StormCloudEntity cloud) {
-        synchronized (storms) {
-            storms.computeIfAbsent(cloud.getUuid(), id -> new Storm(cloud));
+    /**
+     * Records the area a stormy cloud is currently raining on.
+     */
+    public void updateStorm(StormCloudEntity cloud) {
+        if (cloud.age % 200 == 0) {
+            storms.prune();
         }
+        storms.update(cloud);
+    }
+
+    public void removeStorm(StormCloudEntity cloud) {
+        storms.remove(cloud);
     }
 
     public boolean isInRangeOfStorm(BlockPos pos) {
-        synchronized (storms) {
-            storms.values().removeIf(Storm::shouldRemove);
-            return storms.values().stream().anyMatch(storm -> storm.inRange(pos));
-        }
+        return storms.contains(pos);
+    }
+
+    /**
+     * Checks whether any storm is raining on part of the given horizontal area at or below the given height.
+     */
+    public boolean isStormInArea(int minX, int minZ, int maxX, int maxZ, int y) {
+        return storms.intersects(minX, minZ, maxX, maxZ, y);
     }
 
     @Override
@@ -128,33 +122,6 @@ public class WeatherConditions extends PersistentState implements Tickable {
         return compound;
     }
 
-    private class Storm {
-        private final WeakReference<StormCloudEntity> cloud;
-
-        public Storm(StormCloudEntity cloud) {
-            this.cloud = new WeakReference<>(cloud);
-        }
-
-        public boolean inRange(BlockPos pos) {
-            final StormCloudEntity cloud = this.cloud.get();
-            if (cloud == null) {
-                return false;
-            }
-            BlockPos cloudPos = cloud.getBlockPos();
-            if (pos.getY() > cloudPos.getY() + cloud.getHeight()) {
-                return false;
-            }
-            float radius = cloud.getSizeInBlocks();
-            return (cloudPos.getX() - pos.getX()) <= radius
-                    && (cloudPos.getZ() - pos.getZ()) <= radius;
-        }
-
-        public boolean shouldRemove() {
-            final StormCloudEntity cloud = this.cloud.get();
-            return cloud == null || cloud.isRemoved() || !cloud.isStormy();
-        }
-    }
-
     public static Vec3d getAirflow(BlockPos pos, World world) {
         BlockPos.Mutable probedPosition = new BlockPos.Mutable();
 
@@ -182,36 +149,8 @@ public class WeatherConditions extends PersistentState implements Tickable {
     }
 
     private static double getMaterialSurfaceTemperature(BlockPos.Mutable pos, World world) {
-        BlockState state = world.getBlockState(pos);
-
-        if (state.isAir()) {
-            return VOID_UPDRAFT;
-        }
-
-        if (state.isOf(Blocks.SOUL_SAND) || state.isOf(Blocks.SOUL_SOIL)) {
-            return SOUL_SAND_UPDRAFT;
-        }
-
-        if (state.isOf(Blocks.LAVA) || state.isOf(Blocks.LAVA_CAULDRON)
-                || state.isIn(BlockTags.FIRE)
-                || state.isIn(BlockTags.CAMPFIRES)
-                || state.isOf(Blocks.MAGMA_BLOCK)) {
-            return FIRE_UPDRAFT;
-        }
-
-        if (state.isIn(BlockTags.SAND)) {
-            return SAND_UPDRAFT * MeteorlogicalUtil.getSunIntensity(world);
-        }
-
-        if (state.isIn(BlockTags.SNOW) || state.isIn(BlockTags.ICE)) {
-            return ICE_UPDRAFT * MeteorlogicalUtil.getSunIntensity(world);
-        }
-
-        if (state.getFluidState().isIn(FluidTags.WATER)) {
-            return MeteorlogicalUtil.getSunIntensity(world);
-        }
-
-        return 0;
+        AirflowField.SurfaceMaterial material = AirflowField.of(world).getSurfaceMaterial(pos);
+        return material == AirflowField.SurfaceMaterial.NONE ? 0 : material.getTemperature(MeteorlogicalUtil.getSunIntensity(world));
     }
 
     public static Vec3d getGustStrength(World world, BlockPos pos) {
@@ -0,0 +1,94 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.entity.duck.RotatedView;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Measures the throughput of {@link WorldChunk#getBlockState} through the gravity-inversion
+ * hooks in {@link RotatedView} against reading the chunk's sections directly, which bypasses them.
+ * <p>
+ * Enabled with {@code -Dunicopia.debug.benchmarkWorldAccess=true}
+ */
+public interface WorldAccessBenchmark {
+    int ITERATIONS = 50;
+    int THREADS = 4;
+
+    static void run(World world) {
+        WorldChunk chunk = world.getWorldChunk(BlockPos.ORIGIN);
+        int bottom = world.getBottomY();
+        int top = world.getTopY();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        LongSupplier direct = () -> {
+            long sink = 0;
+            ChunkSection[] sections = chunk.getSectionArray();
+            for (int i = 0; i < sections.length; i++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            sink += sections[i].getBlockState(x, y, z).hashCode();
+                        }
+                    }
+                }
+            }
+            return sink;
+        };
+        LongSupplier hooked = () -> {
+            long sink = 0;
+            for (int y = bottom; y < top; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        sink += chunk.getBlockState(pos.set(x, y, z)).hashCode();
+                    }
+                }
+            }
+            return sink;
+        };
+
+        report("direct section reads", direct);
+        report("chunk reads, no transform", hooked);
+
+        RotatedView view = (RotatedView)world;
+        view.pushRotation((bottom + top) / 2);
+        try {
+            report("chunk reads, transform on this thread", hooked);
+            report("chunk reads on " + THREADS + " parallel threads, transform on this thread", () -> {
+                AtomicLong sink = new AtomicLong();
+                IntStream.range(0, THREADS).parallel().forEach(i -> {
+                    BlockPos.Mutable p = new BlockPos.Mutable();
+                    long s = 0;
+                    for (int y = bottom; y < top; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            for (int x = 0; x < 16; x++) {
+                                s += chunk.getBlockState(p.set(x, y, z)).hashCode();
+                            }
+                        }
+                    }
+                    sink.addAndGet(s);
+                });
+                return sink.get();
+            });
+        } finally {
+            view.popRotation();
+        }
+    }
+
+    private static void report(String name, LongSupplier reader) {
+        long sink = reader.getAsLong();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += reader.getAsLong();
+        }
+        long elapsed = (System.nanoTime() - start) / ITERATIONS;
+        Unicopia.LOGGER.info("World access benchmark for {}: {}ms/chunk ({})", name, String.format("%.3f", elapsed / 1000000D), sink);
+    }
+}
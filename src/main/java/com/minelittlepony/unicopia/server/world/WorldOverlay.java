@@ -12,9 +12,15 @@ import com.minelittlepony.unicopia.util.NbtSerialisable;
 import com.minelittlepony.unicopia.util.Tickable;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.server.world.ThreadedAnvilChunkStorage;
@@ -25,16 +31,23 @@ import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
 public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState implements Tickable {
+    /**
+     * The version of the layout written by {@link #writeNbt}.
+     * Saves without a version use the original layout and are converted when they're next saved.
+     */
+    static final int SCHEMA_VERSION = 1;
 
     private final World world;
 
-    private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<T> chunks = new Long2ObjectOpenHashMap<>();
 
     private final Object locker = new Object();
 
-    private final Supplier<T> factory;
+    private final LongSet dirtyChunks = new LongOpenHashSet();
+
+    private final LongFunction<T> factory;
     @Nullable
-    private final BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender;
+    private final BiConsumer<T, List<ServerPlayerEntity>> updateSender;
 
     public static <T extends PersistentState> T getPersistableStorage(World world, Identifier id, BiFunction<World, NbtCompound, T> loadFunc, Function<World, T> factory) {
         if (world instanceof ServerWorld serverWorld) {
@@ -51,7 +64,7 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
         return ClientInstance.of(world, id, factory).instance();
     }
 
-    public static <T extends State> WorldOverlay<T> getOverlay(World world, Identifier id, Supplier<T> factory, @Nullable BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender) {
+    public static <T extends State> WorldOverlay<T> getOverlay(World world, Identifier id, LongFunction<T> factory, @Nullable BiConsumer<T, List<ServerPlayerEntity>> updateSender) {
         return getOverlay(world, id, w -> new WorldOverlay<>(w, factory, updateSender));
     }
 
@@ -63,7 +76,7 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
         }, overlayFactory);
     }
 
-    WorldOverlay(World world, Supplier<T> factory, @Nullable BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender) {
+    WorldOverlay(World world, LongFunction<T> factory, @Nullable BiConsumer<T, List<ServerPlayerEntity>> updateSender) {
         this.world = world;
         this.factory = factory;
         this.updateSender = updateSender;
@@ -71,123 +84,120 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
 
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
+        synchronized (locker) {
+            long[] positions = new long[chunks.size()];
+            NbtList states = new NbtList();
+            int i = 0;
+            for (Long2ObjectMap.Entry<T> entry : Long2ObjectMaps.fastIterable(chunks)) {
+                positions[i++] = entry.getLongKey();
+                states.add(entry.getValue().toNBT());
+            }
+            compound.putInt("version", SCHEMA_VERSION);
+            compound.putLongArray("positions", positions);
+            compound.put("chunks", states);
+        }
+        return compound;
+    }
+
+    /**
+     * Writes this overlay in the original layout, with every chunk keyed by its position as a decimal string.
+     * Only used to compare against the current layout.
+     */
+    NbtCompound writeLegacyNbt(NbtCompound compound) {
         NbtCompound destructions = new NbtCompound();
-        this.chunks.forEach((id, chunk) -> {
-            destructions.put(id.toString(), chunk.toNBT());
-        });
+        synchronized (locker) {
+            this.chunks.forEach((id, chunk) -> {
+                destructions.put(id.toString(), chunk.toNBT());
+            });
+        }
         compound.put("chunks", destructions);
         return compound;
     }
 
     public void readNbt(NbtCompound compound) {
-        NbtCompound d = compound.getCompound("chunks");
-        d.getKeys().forEach(id -> {
-            chunks.computeIfAbsent(Long.valueOf(id), Chunk::new).fromNBT(d.getCompound(id));
-        });
+        if (compound.getInt("version") < SCHEMA_VERSION) {
+            NbtCompound d = compound.getCompound("chunks");
+            d.getKeys().forEach(id -> {
+                chunks.computeIfAbsent(Long.parseLong(id), factory).fromNBT(d.getCompound(id));
+            });
+            return;
+        }
+
+        long[] positions = compound.getLongArray("positions");
+        NbtList states = compound.getList("chunks", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < positions.length && i < states.size(); i++) {
+            chunks.computeIfAbsent(positions[i], factory).fromNBT(states.getCompound(i));
+        }
     }
 
+    /**
+     * Gets the state for the chunk containing a block without allocating one if it doesn't exist.
+     */
     @Nullable
     public T getState(BlockPos pos) {
-        return getChunk(pos).getState(pos);
+        synchronized (locker) {
+            return chunks.get(ChunkPos.toLong(pos));
+        }
     }
 
     public T getOrCreateState(BlockPos pos) {
         synchronized (locker) {
-            return getChunk(pos).getOrCreateState(pos);
+            return chunks.computeIfAbsent(ChunkPos.toLong(pos), factory);
         }
     }
 
-    private Chunk getChunk(BlockPos pos) {
-        return chunks.computeIfAbsent(new ChunkPos(pos).toLong(), Chunk::new);
-    }
-
-    public void setState(BlockPos pos, @Nullable T state) {
+    /**
+     * Queues a chunk to have its changes sent to watching clients on the next tick.
+     */
+    public void markChunkDirty(long chunkPos) {
         synchronized (locker) {
-            getChunk(pos).setState(pos, state);
-            markDirty();
+            dirtyChunks.add(chunkPos);
         }
     }
 
     @Override
     public void tick() {
         synchronized (locker) {
-            chunks.long2ObjectEntrySet().removeIf(entry -> entry.getValue().tick());
-
-            if (world instanceof ServerWorld) {
-                chunks.forEach((chunkPos, chunk) -> chunk.sendUpdates((ServerWorld)world));
+            if (world instanceof ServerWorld serverWorld && updateSender != null) {
+                LongIterator iter = dirtyChunks.iterator();
+                while (iter.hasNext()) {
+                    long pos = iter.nextLong();
+                    T chunk = chunks.get(pos);
+                    if (chunk != null) {
+                        sendUpdates(serverWorld, pos, chunk);
+                    }
+                }
             }
-        }
-    }
+            dirtyChunks.clear();
 
-    private class Chunk implements NbtSerialisable {
-        private final Long2ObjectMap<T> states = new Long2ObjectOpenHashMap<>();
-
-        private final long pos;
-
-        Chunk(long pos) {
-            this.pos = pos;
-        }
-
-        @Nullable
-        public T getState(BlockPos pos) {
-            return states.get(pos.asLong());
-        }
-
-        public T getOrCreateState(BlockPos pos) {
-            return states.computeIfAbsent(pos.asLong(), l -> factory.get());
-        }
-
-        public void setState(BlockPos pos, @Nullable T state) {
-            if (state == null) {
-                states.remove(pos.asLong());
-            } else {
-                states.put(pos.asLong(), state);
-            }
+            // chunks that changed during this tick are kept around until their changes have been sent
+            chunks.long2ObjectEntrySet().removeIf(entry -> entry.getValue().tick() && !dirtyChunks.contains(entry.getLongKey()));
         }
+    }
 
-        boolean tick() {
-            states.long2ObjectEntrySet().removeIf(e -> e.getValue().tick());
-            return states.isEmpty();
+    private void sendUpdates(ServerWorld world, long pos, T chunk) {
+        if (!world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
+            return;
         }
 
-        void sendUpdates(ServerWorld world) {
-            if (updateSender == null) {
-                return;
-            }
-
-            if (!world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
-                return;
-            }
-
-            ThreadedAnvilChunkStorage storage = world.getChunkManager().threadedAnvilChunkStorage;
+        ThreadedAnvilChunkStorage storage = world.getChunkManager().threadedAnvilChunkStorage;
 
-            List<ServerPlayerEntity> players = storage.getPlayersWatchingChunk(new ChunkPos(pos), false);
-
-            if (!players.isEmpty()) {
-                updateSender.accept(states, players);
-            }
-        }
+        List<ServerPlayerEntity> players = storage.getPlayersWatchingChunk(new ChunkPos(pos), false);
 
-        @Override
-        public void toNBT(NbtCompound compound) {
-            NbtCompound states = new NbtCompound();
-            this.states.forEach((id, state) -> {
-                states.put(id.toString(), state.toNBT());
-            });
-            compound.put("states", states);
-        }
-
-        @Override
-        public void fromNBT(NbtCompound compound) {
-            NbtCompound d = compound.getCompound("states");
-            chunks.clear();
-            d.getKeys().forEach(id -> {
-                states.computeIfAbsent(Long.valueOf(id), i -> factory.get()).fromNBT(d.getCompound(id));
-            });
+        if (!players.isEmpty()) {
+            updateSender.accept(chunk, players);
         }
     }
 
+    /**
+     * The per-chunk contents of a world overlay.
+     */
     public interface State extends NbtSerialisable {
+        /**
+         * Updates this chunk's contents.
+         *
+         * @return True if the chunk is empty and can be discarded.
+         */
         boolean tick();
     }
 
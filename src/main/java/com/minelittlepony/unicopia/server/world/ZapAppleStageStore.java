@@ -11,6 +11,7 @@ import com.minelittlepony.unicopia.particle.LightningBoltParticleEffect;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.util.Tickable;
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LightningEntity;
 import net.minecraft.nbt.*;
@@ -34,7 +35,17 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
         return WorldOverlay.getPersistableStorage(world, ID, ZapAppleStageStore::new, ZapAppleStageStore::new);
     }
 
+    public static void bootstrap() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> get(world).tracker.onChunkLoaded(chunk, getTransitionWindow()));
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> get(world).tracker.onChunkUnloaded(chunk));
+    }
+
+    private static int getTransitionWindow() {
+        return Unicopia.getConfig().zapAppleTransitionTicks.get();
+    }
+
     private final World world;
+    private final ZapStagedBlockTracker tracker;
 
     private Stage lastStage = Stage.HIBERNATING;
     private long stageDelta;
@@ -55,6 +66,7 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
 
     ZapAppleStageStore(World world) {
         this.world = world;
+        this.tracker = new ZapStagedBlockTracker(this, world);
     }
 
     @Override
@@ -70,7 +82,10 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
                 stageDelta = 0;
                 playedMoonEffect = false;
                 sendUpdate();
+                tracker.wake(getTransitionWindow());
             }
+
+            tracker.tick();
         } else if (stageChanged) {
             stageChanged = false;
         }
@@ -96,6 +111,24 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
         Channel.SERVER_ZAP_STAGE.sendToAllPlayers(new MsgZapAppleStage(getStage(), stageDelta), world);
     }
 
+    /**
+     * Starts tracking a zap-staged block so it will be moved along when the stage next changes.
+     */
+    public void track(BlockPos pos) {
+        tracker.track(pos);
+    }
+
+    public void untrack(BlockPos pos) {
+        tracker.untrack(pos);
+    }
+
+    /**
+     * Returns the number of zap-staged blocks currently loaded in this world.
+     */
+    public int getTrackedBlockCount() {
+        return tracker.getTrackedBlockCount();
+    }
+
     public void playMoonEffect(BlockPos pos) {
         if (!playedMoonEffect) {
             playedMoonEffect = true;
@@ -0,0 +1,170 @@
+package com.minelittlepony.unicopia.server.world;
+
+import com.minelittlepony.unicopia.block.ZapStagedBlock;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Keeps track of every zap-staged block in the loaded chunks of a world, so they can be woken up when the
+ * zap apple stage changes rather than each one rescheduling itself every tick.
+ * <p>
+ * When woken, each block is given a delay drawn from the same odds it used to roll every tick
+ * and is moved to the new stage once that many night-time ticks have passed.
+ * Blocks in chunks that load while behind the current stage are scheduled the same way,
+ * however long ago the stage changed.
+ */
+class ZapStagedBlockTracker {
+    private final ZapAppleStageStore store;
+    private final World world;
+
+    private final Long2ObjectMap<LongSet> chunks = new Long2ObjectOpenHashMap<>();
+    private int trackedBlocks;
+
+    private final Long2ObjectMap<LongList> pendingTransitions = new Long2ObjectOpenHashMap<>();
+    private long transitionTick;
+
+    ZapStagedBlockTracker(ZapAppleStageStore store, World world) {
+        this.store = store;
+        this.world = world;
+    }
+
+    public int getTrackedBlockCount() {
+        return trackedBlocks;
+    }
+
+    public boolean isTransitioning() {
+        return !pendingTransitions.isEmpty();
+    }
+
+    public void track(BlockPos pos) {
+        if (chunks.computeIfAbsent(ChunkPos.toLong(pos), k -> new LongOpenHashSet()).add(pos.asLong())) {
+            trackedBlocks++;
+        }
+    }
+
+    public void untrack(BlockPos pos) {
+        long chunk = ChunkPos.toLong(pos);
+        LongSet positions = chunks.get(chunk);
+        if (positions != null && positions.remove(pos.asLong())) {
+            trackedBlocks--;
+            if (positions.isEmpty()) {
+                chunks.remove(chunk);
+            }
+        }
+    }
+
+    public void onChunkLoaded(WorldChunk chunk, int transitionWindow) {
+        ChunkSection[] sections = chunk.getSectionArray();
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (!section.hasAny(ZapStagedBlockTracker::canChangeStage)) {
+                continue;
+            }
+            ChunkSectionPos sectionPos = ChunkSectionPos.from(chunk.getPos(), chunk.sectionIndexToCoord(i));
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (canChangeStage(state)) {
+                            pos.set(sectionPos.getMinX() + x, sectionPos.getMinY() + y, sectionPos.getMinZ() + z);
+                            track(pos);
+                            scheduleTransition(pos, state, transitionWindow);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void onChunkUnloaded(WorldChunk chunk) {
+        LongSet positions = chunks.remove(chunk.getPos().toLong());
+        if (positions != null) {
+            trackedBlocks -= positions.size();
+        }
+    }
+
+    /**
+     * Schedules every tracked block to change to the current stage within the given number of ticks,
+     * replacing any transitions still pending from a previous stage.
+     */
+    public void wake(int transitionWindow) {
+        pendingTransitions.clear();
+        transitionTick = 0;
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (LongSet positions : chunks.values()) {
+            LongIterator iter = positions.iterator();
+            while (iter.hasNext()) {
+                BlockState state = world.getBlockState(pos.set(iter.nextLong()));
+                if (canChangeStage(state)) {
+                    scheduleTransition(pos, state, transitionWindow);
+                } else {
+                    iter.remove();
+                    trackedBlocks--;
+                }
+            }
+        }
+        chunks.values().removeIf(LongSet::isEmpty);
+    }
+
+    /**
+     * Advances the blocks due to change on this tick. Only called during the night.
+     */
+    public void tick() {
+        if (!isTransitioning() || !(world instanceof ServerWorld serverWorld)) {
+            return;
+        }
+        LongList due = pendingTransitions.remove(transitionTick++);
+        if (due == null) {
+            return;
+        }
+        Random random = world.getRandom();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = 0; i < due.size(); i++) {
+            pos.set(due.getLong(i));
+            LongSet positions = chunks.get(ChunkPos.toLong(pos));
+            if (positions == null || !positions.contains(pos.asLong())) {
+                continue;
+            }
+            BlockState state = world.getBlockState(pos);
+            if (canChangeStage(state)) {
+                ((ZapStagedBlock)state.getBlock()).advanceStage(state, serverWorld, pos, random);
+            }
+        }
+    }
+
+    private void scheduleTransition(BlockPos pos, BlockState state, int transitionWindow) {
+        ZapStagedBlock block = (ZapStagedBlock)state.getBlock();
+        ZapAppleStageStore.Stage stage = store.getStage();
+        if (block.getStage(state) == stage) {
+            return;
+        }
+        long delay = Math.min(getTransitionDelay(block.getTransitionRate(stage), world.getRandom()), Math.max(1, transitionWindow) - 1);
+        pendingTransitions.computeIfAbsent(transitionTick + delay, k -> new LongArrayList()).add(pos.asLong());
+    }
+
+    /**
+     * Picks how many ticks pass before a block that has a one in {@code transitionRate} chance of
+     * changing each tick first succeeds.
+     */
+    private static long getTransitionDelay(int transitionRate, Random random) {
+        if (transitionRate <= 1) {
+            return 0;
+        }
+        double chance = 1D / transitionRate;
+        return (long)Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - chance));
+    }
+
+    private static boolean canChangeStage(BlockState state) {
+        return state.getBlock() instanceof ZapStagedBlock block && block.canChangeStage(state);
+    }
+}
@@ -0,0 +1,59 @@
+package com.minelittlepony.unicopia.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.minelittlepony.unicopia.entity.duck.RotatedView;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Reads block states for many nearby positions straight from the chunk sections that hold them.
+ * <p>
+ * The section holding the last position read is remembered, so walking through neighbouring blocks
+ * only goes through the world's chunk lookup when crossing into a new section.
+ * <p>
+ * A reader is only valid for as long as the blocks being read are not being changed.
+ */
+public final class ChunkSectionReader {
+    private final World world;
+
+    private long lastSectionPos = Long.MAX_VALUE;
+    @Nullable
+    private ChunkSection lastSection;
+
+    public ChunkSectionReader(World world) {
+        this.world = world;
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        int y = ((RotatedView)world).applyRotation(pos.getY());
+        if (world.isOutOfHeightLimit(y)) {
+            return Blocks.VOID_AIR.getDefaultState();
+        }
+
+        int x = pos.getX();
+        int z = pos.getZ();
+        long sectionPos = ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(y),
+                ChunkSectionPos.getSectionCoord(z)
+        );
+
+        if (sectionPos != lastSectionPos || lastSection == null) {
+            WorldChunk chunk = world.getChunk(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(z));
+            lastSection = chunk.getSection(chunk.getSectionIndex(y));
+            lastSectionPos = sectionPos;
+        }
+
+        if (lastSection.isEmpty()) {
+            return Blocks.AIR.getDefaultState();
+        }
+        return lastSection.getBlockState(x & 15, y & 15, z & 15);
+    }
+}
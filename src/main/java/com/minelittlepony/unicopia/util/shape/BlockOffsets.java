@@ -0,0 +1,194 @@
+package com.minelittlepony.unicopia.util.shape;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * A precomputed table of the block positions, relative to a shape's origin, that fall inside that shape.
+ * <p>
+ * Tables are built the first time a shape is queried and shared between every shape equal to it,
+ * so repeated queries against the same sphere only cost one lookup and a walk over a packed int array.
+ * Offsets are ordered by the 16-block cell they fall in, so that blocks sharing a chunk section are visited together.
+ * <p>
+ * Only shapes that can be compared by value (spheres, cylinders, and rotations of them) are tabled.
+ * Their dimensions and rotations are rounded to a fixed step before being used as a key, and
+ * any translation is split into a whole-block part that's added when visiting and a fractional part
+ * (also rounded) that's folded into the key, so a shape moving or growing smoothly keeps landing on the same few tables.
+ * Everything else is checked block by block against its bounding box.
+ */
+final class BlockOffsets {
+    private static final int MAX_CACHED_TABLES = 128;
+    private static final int BITS = 10;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int BIAS = 1 << (BITS - 1);
+
+    private static final int SIZE_STEPS = 8;
+    private static final int ANGLE_STEPS = 128;
+    private static final int FRACTION_STEPS = 8;
+
+    private static final Map<Key, BlockOffsets> TABLES = new ConcurrentHashMap<>();
+
+    private final int[] offsets;
+
+    private BlockOffsets(int[] offsets) {
+        this.offsets = offsets;
+    }
+
+    static void forEach(Shape shape, Consumer<BlockPos> visitor) {
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        Shape base = shape;
+        while (base instanceof TranslatedPointGenerator t && t.source() instanceof Shape source) {
+            x += t.offset().x;
+            y += t.offset().y;
+            z += t.offset().z;
+            base = source;
+        }
+
+        @Nullable
+        Shape canonical = canonicalize(base);
+        if (canonical != null) {
+            long qx = Math.round(x * FRACTION_STEPS);
+            long qy = Math.round(y * FRACTION_STEPS);
+            long qz = Math.round(z * FRACTION_STEPS);
+
+            @Nullable
+            BlockOffsets table = get(new Key(canonical,
+                    (int)Math.floorMod(qx, FRACTION_STEPS),
+                    (int)Math.floorMod(qy, FRACTION_STEPS),
+                    (int)Math.floorMod(qz, FRACTION_STEPS)
+            ));
+            if (table != null) {
+                table.forEach(
+                        (int)Math.floorDiv(qx, FRACTION_STEPS),
+                        (int)Math.floorDiv(qy, FRACTION_STEPS),
+                        (int)Math.floorDiv(qz, FRACTION_STEPS),
+                        visitor
+                );
+                return;
+            }
+        }
+
+        forEachInBounds(shape, visitor);
+    }
+
+    private void forEach(int x, int y, int z, Consumer<BlockPos> visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int packed : offsets) {
+            visitor.accept(pos.set(
+                    x + ((packed >> (BITS * 2)) & MASK) - BIAS,
+                    y + ((packed >> BITS) & MASK) - BIAS,
+                    z + (packed & MASK) - BIAS
+            ));
+        }
+    }
+
+    @Nullable
+    private static BlockOffsets get(Key key) {
+        BlockOffsets table = TABLES.get(key);
+        if (table == null) {
+            table = compute(key);
+            if (table == null) {
+                return null;
+            }
+            if (TABLES.size() >= MAX_CACHED_TABLES) {
+                TABLES.clear();
+            }
+            TABLES.put(key, table);
+        }
+        return table;
+    }
+
+    @Nullable
+    private static BlockOffsets compute(Key key) {
+        Shape shape = key.shape();
+        Vec3d fraction = key.fraction();
+        BlockPos a = BlockPos.ofFloored(shape.getLowerBound().add(fraction));
+        BlockPos b = BlockPos.ofFloored(shape.getUpperBound().add(fraction));
+        int minX = Math.min(a.getX(), b.getX());
+        int minY = Math.min(a.getY(), b.getY());
+        int minZ = Math.min(a.getZ(), b.getZ());
+        int maxX = Math.max(a.getX(), b.getX());
+        int maxY = Math.max(a.getY(), b.getY());
+        int maxZ = Math.max(a.getZ(), b.getZ());
+
+        if (minX < -BIAS || minY < -BIAS || minZ < -BIAS || maxX >= BIAS || maxY >= BIAS || maxZ >= BIAS) {
+            return null;
+        }
+
+        IntArrayList offsets = new IntArrayList();
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                for (int cy = minY >> 4; cy <= maxY >> 4; cy++) {
+                    for (int y = Math.max(minY, cy << 4); y <= Math.min(maxY, (cy << 4) + 15); y++) {
+                        for (int z = Math.max(minZ, cz << 4); z <= Math.min(maxZ, (cz << 4) + 15); z++) {
+                            for (int x = Math.max(minX, cx << 4); x <= Math.min(maxX, (cx << 4) + 15); x++) {
+                                if (shape.isPointInside(x + 0.5 - fraction.x, y + 0.5 - fraction.y, z + 0.5 - fraction.z)) {
+                                    offsets.add(((x + BIAS) << (BITS * 2)) | ((y + BIAS) << BITS) | (z + BIAS));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new BlockOffsets(offsets.toIntArray());
+    }
+
+    private static void forEachInBounds(Shape shape, Consumer<BlockPos> visitor) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (BlockPos p : BlockPos.iterate(BlockPos.ofFloored(shape.getLowerBound()), BlockPos.ofFloored(shape.getUpperBound()))) {
+            if (shape.isPointInside(p.getX() + 0.5, p.getY() + 0.5, p.getZ() + 0.5)) {
+                visitor.accept(pos.set(p));
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the shape with its dimensions and rotations rounded to the table steps,
+     * or null if the shape can't be tabled.
+     */
+    @Nullable
+    private static Shape canonicalize(Shape shape) {
+        if (shape instanceof RotatedPointGenerator r) {
+            return r.original() instanceof Shape original && canonicalize(original) instanceof Shape o
+                    ? new RotatedPointGenerator(o, quantize(r.pitch(), ANGLE_STEPS), quantize(r.yaw(), ANGLE_STEPS))
+                    : null;
+        }
+        if (shape instanceof Sphere s) {
+            return new Sphere(s.hollow, quantize(s.rad, SIZE_STEPS), (float)s.stretch.x, (float)s.stretch.y, (float)s.stretch.z);
+        }
+        if (shape instanceof Cylinder c) {
+            return new Cylinder(c.hollow, quantize(c.height, SIZE_STEPS), quantize(c.rad, SIZE_STEPS), c.stretchX, c.stretchZ);
+        }
+        return null;
+    }
+
+    private static double quantize(double value, int steps) {
+        return Math.round(value * steps) / (double)steps;
+    }
+
+    private static float quantize(float value, int steps) {
+        return Math.round(value * steps) / (float)steps;
+    }
+
+    /**
+     * @param shape The canonical shape, centered on the origin
+     * @param fx    The fractional part of the shape's translation along the x-axis, in {@link #FRACTION_STEPS}ths of a block
+     * @param fy    The fractional part of the shape's translation along the y-axis, in {@link #FRACTION_STEPS}ths of a block
+     * @param fz    The fractional part of the shape's translation along the z-axis, in {@link #FRACTION_STEPS}ths of a block
+     */
+    private record Key(Shape shape, int fx, int fy, int fz) {
+        Vec3d fraction() {
+            return new Vec3d(fx, fy, fz).multiply(1D / FRACTION_STEPS);
+        }
+    }
+}
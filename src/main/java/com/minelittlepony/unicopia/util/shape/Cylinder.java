@@ -1,18 +1,20 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import com.google.common.base.Objects;
+
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 
 public class Cylinder implements Shape {
 
-    private final boolean hollow;
+    final boolean hollow;
 
-    private final double stretchX;
-    private final double stretchZ;
+    final double stretchX;
+    final double stretchZ;
 
-    private final double height;
-    private final double rad;
+    final double height;
+    final double rad;
 
     private final double volume;
 
@@ -77,10 +79,16 @@ public class Cylinder implements Shape {
 
     @Override
     public boolean isPointInside(Vec3d point) {
-        point = new Vec3d(point.x / stretchX, point.y, point.z / stretchZ);
-        double y = Math.abs(point.y);
+        return isPointInside(point.x, point.y, point.z);
+    }
+
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        x /= stretchX;
+        z /= stretchZ;
+        y = Math.abs(y);
         if (y < height/2) {
-            double r = Math.sqrt((point.x * point.x) + (point.z * point.z));
+            double r = Math.sqrt((x * x) + (z * z));
             return hollow ? r == rad : r <= rad;
         }
         return y == height/2;
@@ -95,4 +103,19 @@ public class Cylinder implements Shape {
     public Vec3d getUpperBound() {
         return new Vec3d(-rad * stretchX, height, -rad * stretchZ);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Cylinder o
+                && hollow == o.hollow
+                && Double.compare(height, o.height) == 0
+                && Double.compare(rad, o.rad) == 0
+                && Double.compare(stretchX, o.stretchX) == 0
+                && Double.compare(stretchZ, o.stretchZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hollow, height, rad, stretchX, stretchZ);
+    }
+}
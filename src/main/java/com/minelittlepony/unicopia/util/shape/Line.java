@@ -11,9 +11,9 @@ import net.minecraft.util.math.random.Random;
  */
 public class Line implements Shape {
 
-    private final double length;
+    final double length;
 
-    private final Vec3d gradient;
+    final Vec3d gradient;
 
     public Line(Vec3d start, Vec3d end) {
         Vec3d lenV = end.subtract(start);
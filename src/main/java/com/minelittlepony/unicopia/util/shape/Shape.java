@@ -1,5 +1,8 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import net.minecraft.util.math.*;
@@ -32,14 +35,30 @@ public interface Shape extends PointGenerator {
      */
     boolean isPointInside(Vec3d point);
 
+    /**
+     * Checks if the given point is on the edge, or if not hollow the inside, of this shape.
+     */
+    default boolean isPointInside(double x, double y, double z) {
+        return isPointInside(new Vec3d(x, y, z));
+    }
+
     /**
      * Returns a stream of all block positions that fit inside this shape.
      */
     default Stream<BlockPos> getBlockPositions() {
-        return BlockPos.stream(
-            BlockPos.ofFloored(getLowerBound()),
-            BlockPos.ofFloored(getUpperBound())
-        ).filter(pos -> isPointInside(Vec3d.ofCenter(pos)));
+        List<BlockPos> positions = new ArrayList<>();
+        forEachBlockPosition(pos -> positions.add(pos.toImmutable()));
+        return positions.stream();
+    }
+
+    /**
+     * Visits every block position that fits inside this shape.
+     * <p>
+     * The same mutable position is handed to the visitor for every block, so it must be copied if it needs to be kept.
+     * Blocks are visited grouped by the chunk section they're in wherever possible.
+     */
+    default void forEachBlockPosition(Consumer<BlockPos> visitor) {
+        BlockOffsets.forEach(this, visitor);
     }
 
     /**
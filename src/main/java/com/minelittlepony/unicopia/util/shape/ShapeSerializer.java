@@ -0,0 +1,90 @@
+package com.minelittlepony.unicopia.util.shape;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Reads and writes the built-in shapes, along with any rotations and translations applied to them, to a packet.
+ */
+public interface ShapeSerializer {
+    int SPHERE = 0;
+    int CYLINDER = 1;
+    int LINE = 2;
+    int ROTATED = 3;
+    int TRANSLATED = 4;
+
+    /**
+     * Checks whether the given point generator is made up only of shapes that can be sent over the network.
+     */
+    static boolean canWrite(PointGenerator shape) {
+        if (shape instanceof RotatedPointGenerator r) {
+            return canWrite(r.original());
+        }
+        if (shape instanceof TranslatedPointGenerator t) {
+            return canWrite(t.source());
+        }
+        return shape instanceof Sphere || shape instanceof Cylinder || shape instanceof Line;
+    }
+
+    static void write(PacketByteBuf buffer, PointGenerator shape) {
+        if (shape instanceof RotatedPointGenerator r) {
+            buffer.writeByte(ROTATED);
+            buffer.writeFloat(r.pitch());
+            buffer.writeFloat(r.yaw());
+            write(buffer, r.original());
+        } else if (shape instanceof TranslatedPointGenerator t) {
+            buffer.writeByte(TRANSLATED);
+            writeVector(buffer, t.offset());
+            write(buffer, t.source());
+        } else if (shape instanceof Sphere s) {
+            buffer.writeByte(SPHERE);
+            buffer.writeBoolean(s.hollow);
+            buffer.writeDouble(s.rad);
+            buffer.writeFloat((float)s.stretch.x);
+            buffer.writeFloat((float)s.stretch.y);
+            buffer.writeFloat((float)s.stretch.z);
+        } else if (shape instanceof Cylinder c) {
+            buffer.writeByte(CYLINDER);
+            buffer.writeBoolean(c.hollow);
+            buffer.writeDouble(c.height);
+            buffer.writeDouble(c.rad);
+            buffer.writeDouble(c.stretchX);
+            buffer.writeDouble(c.stretchZ);
+        } else if (shape instanceof Line l) {
+            buffer.writeByte(LINE);
+            buffer.writeDouble(l.length);
+            writeVector(buffer, l.gradient);
+        } else {
+            throw new IllegalArgumentException("Shape cannot be serialized: " + shape);
+        }
+    }
+
+    static PointGenerator read(PacketByteBuf buffer) {
+        int type = buffer.readByte();
+        return switch (type) {
+            case ROTATED -> {
+                float pitch = buffer.readFloat();
+                float yaw = buffer.readFloat();
+                yield new RotatedPointGenerator(read(buffer), pitch, yaw);
+            }
+            case TRANSLATED -> {
+                Vec3d offset = readVector(buffer);
+                yield new TranslatedPointGenerator(read(buffer), offset);
+            }
+            case SPHERE -> new Sphere(buffer.readBoolean(), buffer.readDouble(), buffer.readFloat(), buffer.readFloat(), buffer.readFloat());
+            case CYLINDER -> new Cylinder(buffer.readBoolean(), buffer.readDouble(), buffer.readDouble(), buffer.readDouble(), buffer.readDouble());
+            case LINE -> new Line(buffer.readDouble(), readVector(buffer));
+            default -> throw new IllegalArgumentException("Unknown shape type: " + type);
+        };
+    }
+
+    private static void writeVector(PacketByteBuf buffer, Vec3d vector) {
+        buffer.writeDouble(vector.x);
+        buffer.writeDouble(vector.y);
+        buffer.writeDouble(vector.z);
+    }
+
+    private static Vec3d readVector(PacketByteBuf buffer) {
+        return new Vec3d(buffer.readDouble(), buffer.readDouble(), buffer.readDouble());
+    }
+}
@@ -14,8 +14,8 @@ public class Sphere implements Shape {
     public static final Sphere UNIT_SPHERE = new Sphere(false, 1);
 
     protected final Vec3d stretch;
-    private final boolean hollow;
-    private final double rad;
+    final boolean hollow;
+    final double rad;
 
     private final double volume;
 
@@ -87,9 +87,16 @@ public class Sphere implements Shape {
 
     @Override
     public boolean isPointInside(Vec3d point) {
-        point = new Vec3d(point.x / stretch.x, point.y / stretch.y, point.z / stretch.z);
+        return isPointInside(point.x, point.y, point.z);
+    }
+
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        x /= stretch.x;
+        y /= stretch.y;
+        z /= stretch.z;
 
-        double dist = point.length();
+        double dist = Math.sqrt(x * x + y * y + z * z);
 
         return hollow ? dist == rad : dist <= rad;
     }
@@ -33,6 +33,11 @@ record TranslatedPointGenerator (
         return ((Shape)source).isPointInside(point.subtract(offset));
     }
 
+    @Override
+    public boolean isPointInside(double x, double y, double z) {
+        return ((Shape)source).isPointInside(x - offset.x, y - offset.y, z - offset.z);
+    }
+
     @Override
     public Shape translate(Vec3d offset) {
         if (offset.equals(Vec3d.ZERO)) {